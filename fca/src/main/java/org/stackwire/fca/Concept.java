@@ -20,6 +20,7 @@ import java.util.Optional;
 import java.util.Set;
 
 import org.stackwire.fca.tags.IndexTag;
+import org.stackwire.fca.utils.BitIndexSet;
 import org.stackwire.fca.utils.SemanticIndexSet;
 import org.stackwire.fca.utils.Utils;
 
@@ -88,6 +89,10 @@ public final class Concept {
 			super();
 		}
 
+		public Extent(BitIndexSet indicies) {
+			super(indicies);
+		}
+
 		public Extent(Collection<Integer> indicies) {
 			super(indicies);
 		}
@@ -103,6 +108,10 @@ public final class Concept {
 			super();
 		}
 
+		public Intent(BitIndexSet indicies) {
+			super(indicies);
+		}
+
 		public Intent(Collection<Integer> indicies) {
 			super(indicies);
 		}
@@ -15,6 +15,8 @@
  */
 package org.stackwire.fca;
 
+import java.util.stream.Stream;
+
 /**
  * Service generates concepts and adds them to the context
  */
@@ -29,4 +31,45 @@ public interface ConceptGenerator {
 	 * @return specified formal context
 	 */
 	Context generateConceptsFor(Context formalContext, double threshold);
+
+	/**
+	 * Generates formal concepts for the specified context and passes each to
+	 * the specified sink as it is found, until the sink returns false.
+	 * Generators that stream override this so that concepts are not added to
+	 * the context. The default implementation generates all concepts into the
+	 * context, then passes them to the sink.
+	 * 
+	 * @param formalContext
+	 *            formal context
+	 * @param threshold
+	 *            threshold
+	 * @param sink
+	 *            sink to pass concepts to
+	 */
+	default void generateConceptsFor(Context formalContext, double threshold, ConceptSink sink) {
+		for (Concept concept : generateConceptsFor(formalContext, threshold).viewOf(ConceptType.FORMAL_CONCEPT)) {
+			if (!sink.accept(concept)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns stream of the formal concepts of the specified context.
+	 * Concepts are generated on another thread as the stream is read, at most
+	 * {@link ConceptStreams#DEFAULT_CAPACITY} ahead of it. A stream that is
+	 * not read to the end must be closed, for example with try with
+	 * resources, to stop generation. Otherwise the generating thread stays
+	 * blocked until the stream is garbage collected.
+	 * 
+	 * @param formalContext
+	 *            formal context
+	 * @param threshold
+	 *            threshold
+	 * @return stream of the formal concepts
+	 */
+	default Stream<Concept> stream(Context formalContext, double threshold) {
+		return ConceptStreams.of(sink -> generateConceptsFor(formalContext, threshold, sink),
+				ConceptStreams.DEFAULT_CAPACITY);
+	}
 }
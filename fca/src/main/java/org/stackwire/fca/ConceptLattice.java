@@ -0,0 +1,257 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Concepts ordered by their cover relation (Hasse diagram). Concepts are
+ * addressed by their position in the lattice. A concept's upper covers are
+ * the concepts directly above it, which have larger extents and smaller
+ * intents.
+ *
+ * Incremental updates of a context change the lattice in place through the
+ * package private mutators.
+ */
+public final class ConceptLattice {
+
+	private static final int[] NONE = new int[0];
+
+	private final List<Concept> concepts;
+
+	private final Map<Concept, Integer> indexes;
+
+	private int[][] lowerCovers;
+
+	private int[][] upperCovers;
+
+	/**
+	 * Constructor
+	 *
+	 * @param concepts
+	 *            concepts of the lattice
+	 * @param upperCovers
+	 *            positions of the upper covers of each concept. Not copied.
+	 */
+	public ConceptLattice(List<Concept> concepts, int[][] upperCovers) {
+		if (concepts.size() != upperCovers.length) {
+			throw new IllegalArgumentException("Incorrect cover count");
+		}
+		this.concepts = new ArrayList<>(concepts);
+		this.upperCovers = upperCovers;
+		this.indexes = new HashMap<>(concepts.size() * 2);
+		for (int i = 0; i < concepts.size(); i++) {
+			indexes.put(concepts.get(i), i);
+		}
+
+		int[] counts = new int[upperCovers.length];
+		for (int[] covers : upperCovers) {
+			for (int j : covers) {
+				counts[j]++;
+			}
+		}
+		this.lowerCovers = new int[upperCovers.length][];
+		for (int j = 0; j < counts.length; j++) {
+			lowerCovers[j] = (counts[j] == 0) ? NONE : new int[counts[j]];
+			counts[j] = 0;
+		}
+		for (int i = 0; i < upperCovers.length; i++) {
+			for (int j : upperCovers[i]) {
+				lowerCovers[j][counts[j]++] = i;
+			}
+		}
+	}
+
+	/**
+	 * Appends the specified concept without covers
+	 *
+	 * @return position of the concept
+	 */
+	int add(Concept concept) {
+		int index = concepts.size();
+		if (index == upperCovers.length) {
+			int capacity = Math.max(16, index * 2);
+			upperCovers = Arrays.copyOf(upperCovers, capacity);
+			lowerCovers = Arrays.copyOf(lowerCovers, capacity);
+		}
+		concepts.add(concept);
+		indexes.put(concept, index);
+		upperCovers[index] = NONE;
+		lowerCovers[index] = NONE;
+		return index;
+	}
+
+	/**
+	 * Adds the edge from the specified concept to its upper cover
+	 */
+	void addEdge(int lower, int upper) {
+		upperCovers[lower] = append(upperCovers[lower], upper);
+		lowerCovers[upper] = append(lowerCovers[upper], lower);
+	}
+
+	private static int[] append(int[] covers, int index) {
+		int[] appended = Arrays.copyOf(covers, covers.length + 1);
+		appended[covers.length] = index;
+		return appended;
+	}
+
+	/**
+	 * Returns count of cover edges
+	 *
+	 * @return count of cover edges
+	 */
+	public long edgeCount() {
+		long count = 0;
+		for (int i = 0; i < concepts.size(); i++) {
+			count += upperCovers[i].length;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns concept at the specified position
+	 *
+	 * @param index
+	 *            position of concept
+	 * @return concept at the specified position
+	 */
+	public Concept getConcept(int index) {
+		return concepts.get(index);
+	}
+
+	/**
+	 * Returns unmodifiable list of the concepts of this lattice
+	 *
+	 * @return unmodifiable list of the concepts of this lattice
+	 */
+	public List<Concept> getConcepts() {
+		return Collections.unmodifiableList(concepts);
+	}
+
+	/**
+	 * Returns positions of the concepts directly below the specified concept
+	 *
+	 * @param index
+	 *            position of concept
+	 * @return positions of the lower covers
+	 */
+	public int[] getLowerCovers(int index) {
+		return lowerCovers[index].clone();
+	}
+
+	/**
+	 * Returns positions of the concepts directly above the specified concept
+	 *
+	 * @param index
+	 *            position of concept
+	 * @return positions of the upper covers
+	 */
+	public int[] getUpperCovers(int index) {
+		return upperCovers[index].clone();
+	}
+
+	/**
+	 * Returns position of the specified concept, or -1 if the concept is not
+	 * in this lattice
+	 *
+	 * @param concept
+	 *            concept to find
+	 * @return position of the specified concept, or -1
+	 */
+	public int indexOf(Concept concept) {
+		Integer index = indexes.get(concept);
+		return (index == null) ? -1 : index;
+	}
+
+	/**
+	 * Removes the edge from the specified concept to its upper cover
+	 */
+	void removeEdge(int lower, int upper) {
+		upperCovers[lower] = without(upperCovers[lower], upper);
+		lowerCovers[upper] = without(lowerCovers[upper], lower);
+	}
+
+	/**
+	 * Replaces the concept at the specified position, keeping its covers
+	 */
+	void set(int index, Concept concept) {
+		indexes.remove(concepts.set(index, concept));
+		indexes.put(concept, index);
+	}
+
+	/**
+	 * Replaces the concepts of this lattice with the specified concepts. A
+	 * null replacement drops the concept along with its edges. The remaining
+	 * concepts keep their order.
+	 */
+	void update(Concept[] replacements) {
+		int[] positions = new int[concepts.size()];
+		int count = 0;
+		for (int i = 0; i < positions.length; i++) {
+			positions[i] = (replacements[i] == null) ? -1 : count++;
+		}
+		int[][] upper = new int[count][];
+		int[][] lower = new int[count][];
+		concepts.clear();
+		indexes.clear();
+		for (int i = 0; i < positions.length; i++) {
+			if (positions[i] >= 0) {
+				concepts.add(replacements[i]);
+				indexes.put(replacements[i], positions[i]);
+				upper[positions[i]] = remap(upperCovers[i], positions);
+				lower[positions[i]] = remap(lowerCovers[i], positions);
+			}
+		}
+		upperCovers = upper;
+		lowerCovers = lower;
+	}
+
+	private static int[] remap(int[] covers, int[] positions) {
+		int[] remapped = new int[covers.length];
+		int count = 0;
+		for (int j : covers) {
+			if (positions[j] >= 0) {
+				remapped[count++] = positions[j];
+			}
+		}
+		return (count == 0) ? NONE : Arrays.copyOf(remapped, count);
+	}
+
+	private static int[] without(int[] covers, int index) {
+		for (int k = 0; k < covers.length; k++) {
+			if (covers[k] == index) {
+				int[] removed = Arrays.copyOf(covers, covers.length - 1);
+				System.arraycopy(covers, k + 1, removed, k, covers.length - k - 1);
+				return removed;
+			}
+		}
+		return covers;
+	}
+
+	/**
+	 * Returns count of concepts
+	 *
+	 * @return count of concepts
+	 */
+	public int size() {
+		return concepts.size();
+	}
+}
@@ -0,0 +1,35 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca;
+
+/**
+ * Receives concepts as a generator produces them
+ *
+ * @see ConceptGenerator#generateConceptsFor(Context, double, ConceptSink)
+ */
+@FunctionalInterface
+public interface ConceptSink {
+
+	/**
+	 * Receives the next concept. Returning false stops the generation; no
+	 * further concepts are passed to this sink.
+	 * 
+	 * @param concept
+	 *            generated concept
+	 * @return true to continue generation, false to stop
+	 */
+	boolean accept(Concept concept);
+}
@@ -0,0 +1,182 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca;
+
+import java.lang.ref.WeakReference;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Adapts sink based concept generation to streams
+ */
+public final class ConceptStreams {
+
+	/**
+	 * Queue between a producer thread and its spliterator. The producer holds
+	 * the spliterator only weakly, so it stops once the spliterator is
+	 * cancelled or has been collected.
+	 */
+	private static final class Channel {
+
+		private static final Object END = new Object();
+
+		private static final long OFFER_MILLIS = 100;
+
+		private volatile boolean cancelled;
+
+		private volatile Throwable failure;
+
+		private final WeakReference<ProducerSpliterator> owner;
+
+		private final BlockingQueue<Object> queue;
+
+		private Channel(ProducerSpliterator owner, int capacity) {
+			this.owner = new WeakReference<>(owner);
+			this.queue = new ArrayBlockingQueue<>(capacity);
+		}
+
+		private boolean offer(Object element) {
+			try {
+				while (!cancelled && owner.get() != null) {
+					if (queue.offer(element, OFFER_MILLIS, TimeUnit.MILLISECONDS)) {
+						return true;
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return false;
+		}
+
+		private void produce(Consumer<ConceptSink> producer) {
+			try {
+				producer.accept(this::offer);
+			} catch (Throwable t) {
+				failure = t;
+			} finally {
+				offer(END);
+			}
+		}
+	}
+
+	/**
+	 * Spliterator fed by a producer thread through a bounded queue. The
+	 * producer blocks while the queue is full and stops once the spliterator
+	 * is cancelled or unreachable.
+	 */
+	private static final class ProducerSpliterator extends Spliterators.AbstractSpliterator<Concept> {
+
+		private final Channel channel;
+
+		private boolean finished;
+
+		private final Consumer<ConceptSink> producer;
+
+		private Thread thread;
+
+		private ProducerSpliterator(Consumer<ConceptSink> producer, int capacity) {
+			super(Long.MAX_VALUE, Spliterator.NONNULL);
+			this.producer = producer;
+			this.channel = new Channel(this, capacity);
+		}
+
+		private void cancel() {
+			channel.cancelled = true;
+			if (thread != null) {
+				channel.queue.clear();
+			}
+		}
+
+		/**
+		 * Starts the producer thread. The thread references only the channel
+		 * and the producer, never the spliterator.
+		 */
+		private static Thread start(Channel channel, Consumer<ConceptSink> producer) {
+			Thread thread = new Thread(() -> channel.produce(producer), "concept-producer");
+			thread.setDaemon(true);
+			thread.start();
+			return thread;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Concept> action) {
+			if (finished || channel.cancelled) {
+				return false;
+			}
+			if (thread == null) {
+				thread = start(channel, producer);
+			}
+			Object next;
+			try {
+				next = channel.queue.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				cancel();
+				return false;
+			}
+			if (next == Channel.END) {
+				finished = true;
+				Throwable t = channel.failure;
+				if (t instanceof RuntimeException) {
+					throw (RuntimeException) t;
+				} else if (t instanceof Error) {
+					throw (Error) t;
+				} else if (t != null) {
+					throw new IllegalStateException("Concept generation failed", t);
+				}
+				return false;
+			}
+			action.accept((Concept) next);
+			return true;
+		}
+	}
+
+	/**
+	 * Default count of concepts buffered between the producer and the stream
+	 */
+	public static final int DEFAULT_CAPACITY = 1024;
+
+	/**
+	 * Returns a stream of the concepts that the specified producer passes to
+	 * its sink. The producer runs on its own thread once the stream is first
+	 * read, and blocks while capacity concepts are waiting to be read.
+	 * Streams that are not read to the end must be closed, which stops the
+	 * producer. A producer whose stream is left open stops only after the
+	 * stream has been garbage collected, and holds the thread until then.
+	 * 
+	 * @param producer
+	 *            passes concepts to the sink it is given
+	 * @param capacity
+	 *            count of concepts buffered ahead of the stream
+	 * @return stream of the produced concepts
+	 */
+	public static Stream<Concept> of(Consumer<ConceptSink> producer, int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be positive");
+		}
+		ProducerSpliterator spliterator = new ProducerSpliterator(producer, capacity);
+		return StreamSupport.stream(spliterator, false).onClose(spliterator::cancel);
+	}
+
+	private ConceptStreams() {
+	}
+}
@@ -15,12 +15,9 @@
  */
 package org.stackwire.fca;
 
-import java.util.Set;
-
 import org.stackwire.fca.Concept.Extent;
 import org.stackwire.fca.Concept.Intent;
-import org.stackwire.fca.functions.AttributesCommonToObjectsFunction;
-import org.stackwire.fca.functions.ObjectsCommonToAttributesFunction;
+import org.stackwire.fca.functions.ConceptClassifier;
 
 /**
  * An enumeration of the types of concepts
@@ -34,41 +31,21 @@ public enum ConceptType {
 	 * 
 	 * FORMAL_CONCEPT: Requires the following to be true: A''= B' = A
 	 * 
-	 * SEMICONCEPT:
+	 * SEMICONCEPT: A' = B or B' = A
 	 * 
-	 * PRECONCEPT: if each element of A
+	 * PRECONCEPT: if each element of A has each element of B, A is a subset
+	 * of B'
 	 * 
 	 * @param formalContext
 	 *            formal context associated with this formal concept
 	 * @return concept type
-	 * 
+	 * @see ConceptClassifier
 	 */
 	public static ConceptType getConceptType(Context formalContext, Extent extent, Intent intent, double threshold) {
 		if (formalContext == null) {
 			throw new IllegalArgumentException("formalContext is null");
 		}
-		AttributesCommonToObjectsFunction attributesFunction = new AttributesCommonToObjectsFunction(
-				formalContext.getRelations(), threshold);
-		ObjectsCommonToAttributesFunction objectsFunction = new ObjectsCommonToAttributesFunction(
-				formalContext.getRelations(), threshold);
-
-		Set<Integer> aOpr = attributesFunction.apply(extent.getIndicies());
-		Set<Integer> bOpr = objectsFunction.apply(intent.getIndicies());
-
-		boolean BContainsAOpr = intent.getIndicies().containsAll(aOpr);
-		boolean AContainsBOpr = extent.getIndicies().containsAll(bOpr);
-
-		boolean x = aOpr.containsAll(intent.getIndicies()) && BContainsAOpr;
-		boolean y = bOpr.containsAll(extent.getIndicies()) && AContainsBOpr;
-
-		if (x && y) {
-			return ConceptType.FORMAL_CONCEPT;
-		} else if (x || y) {
-			return ConceptType.SEMICONCEPT;
-		} else if (BContainsAOpr && AContainsBOpr) {
-			return ConceptType.PRECONCEPT;
-		}
-
-		return ConceptType.UNKNOWN;
+		return ConceptClassifier.classify(formalContext.getBinaryRelations(threshold), extent.getBitSet(),
+				intent.getBitSet());
 	}
 }
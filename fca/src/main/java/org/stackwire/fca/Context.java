@@ -16,20 +16,37 @@
 package org.stackwire.fca;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.stackwire.fca.Clarifier.ClarifierResult;
 import org.stackwire.fca.Concept.Extent;
 import org.stackwire.fca.Concept.Intent;
 import org.stackwire.fca.graph.Graph;
 import org.stackwire.fca.graph.Node;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.relations.PackedRelations;
+import org.stackwire.fca.relations.RelationStorage;
+import org.stackwire.fca.relations.SparseRelations;
+import org.stackwire.fca.stores.ColumnarConceptStore;
+import org.stackwire.fca.stores.ConceptStorage;
+import org.stackwire.fca.stores.ConceptStore;
+import org.stackwire.fca.stores.IndexedConceptStore;
+import org.stackwire.fca.utils.BitIndexSet;
 import org.stackwire.fca.utils.Utils;
 
 import com.google.common.collect.Sets;
@@ -73,6 +90,10 @@ public class Context {
 		private double[][] relations;
 		
 		private Node root;
+
+		private RelationStorage storage = RelationStorage.DENSE;
+
+		private ConceptStorage conceptStorage = ConceptStorage.INDEXED;
 		
 		private Graph graph;
 
@@ -145,8 +166,20 @@ public class Context {
 				attributeNames = generateLabel(attributeCount, "y");
 			}
 
-			if (relations == null) {
-				this.relations = new double[objectCount][attributeCount];		
+			Context context;
+			if (RelationStorage.DENSE.equals(storage)) {
+				if (relations == null) {
+					this.relations = new double[objectCount][attributeCount];
+				}
+				context = new Context(objectNames, attributeNames, relations, null, null, conceptStorage);
+			} else if (relations == null) {
+				BinaryRelations empty = RelationStorage.SPARSE.equals(storage)
+						? new SparseRelations(objectCount, attributeCount)
+						: new PackedRelations(objectCount, attributeCount);
+				context = new Context(objectNames, attributeNames, null, empty, null, conceptStorage);
+			} else {
+				context = new Context(objectNames, attributeNames, null, toBinaryRelations(storage, relations), null,
+						conceptStorage);
 			}
 			
 			if(graph != null) {
@@ -157,7 +190,7 @@ public class Context {
 					if (parent != null) {
 						int objectIndex = objectNames.indexOf(parent.label);
 						for (String property : parent.properties) {
-							relations[objectIndex][attributeNames.indexOf(property)] = 1;
+							context.addRelation(objectIndex, attributeNames.indexOf(property));
 						}
 						for (Node child : parent.children) {
 							child.properties.addAll(parent.properties);
@@ -167,7 +200,23 @@ public class Context {
 				}
 			} 
 
-			return new Context(objectNames, attributeNames, relations, null);
+			return context;
+		}
+
+		/**
+		 * Sets how the context stores its concepts. Defaults to
+		 * {@link ConceptStorage#INDEXED}.
+		 * 
+		 * @param conceptStorage
+		 *            concept storage
+		 * @return this builder
+		 */
+		public ContextBuilder conceptStorage(ConceptStorage conceptStorage) {
+			if (conceptStorage == null) {
+				throw new IllegalArgumentException("conceptStorage is null");
+			}
+			this.conceptStorage = conceptStorage;
+			return this;
 		}
 
 		public ContextBuilder objectNames(List<String> objectNames) {
@@ -189,6 +238,40 @@ public class Context {
 			this.relations = relations;
 			return this;
 		}
+
+		/**
+		 * Sets how the context stores its relations. Defaults to
+		 * {@link RelationStorage#DENSE}. Binary storage keeps only the cells
+		 * with a value above 0.
+		 * 
+		 * @param storage
+		 *            relation storage
+		 * @return this builder
+		 */
+		public ContextBuilder storage(RelationStorage storage) {
+			if (storage == null) {
+				throw new IllegalArgumentException("storage is null");
+			}
+			this.storage = storage;
+			return this;
+		}
+	}
+
+	/**
+	 * Returns binary relations of the specified storage with the cells of the
+	 * specified table that are above 0
+	 * 
+	 * @param storage
+	 *            PACKED or SPARSE
+	 * @param table
+	 *            cross table of relations
+	 * @return binary relations
+	 */
+	private static BinaryRelations toBinaryRelations(RelationStorage storage, double[][] table) {
+		if (RelationStorage.SPARSE.equals(storage)) {
+			return SparseRelations.of(table, 0);
+		}
+		return PackedRelations.of(table, 0);
 	}
 
 	/**
@@ -208,7 +291,7 @@ public class Context {
 	 */
 	public static Context create(List<String> objectNames, List<String> attributeNames, double[][] relations,
 			int[][] descriptionPaths) {
-		return new Context(objectNames, attributeNames, relations, descriptionPaths);
+		return new Context(objectNames, attributeNames, relations, null, descriptionPaths, ConceptStorage.INDEXED);
 	}
 
 	/**
@@ -221,21 +304,44 @@ public class Context {
 	 */
 	private final int[][] descriptionPaths;
 
-	private final Collection<Concept> formalConcepts = new ArrayList<>();
+	/**
+	 * Cover relation of the formal concepts. Null until computed by a
+	 * generator.
+	 */
+	private ConceptLattice conceptLattice;
+
+	/**
+	 * Formal concepts, preconcepts and semiconcepts of this context
+	 */
+	private final ConceptStore concepts;
 
 	/**
 	 * Object names
 	 */
 	private final ArrayList<String> objectNames;
 
-	private final Collection<Concept> preConcepts = new ArrayList<>();
+	/**
+	 * Binary relations. Null if this context is backed by a dense table.
+	 */
+	private BinaryRelations binaryRelations;
+
+	/**
+	 * Read-only binary views of the relations, keyed by threshold. Cleared
+	 * whenever a relation changes.
+	 */
+	private final Map<Double, BinaryRelations> binaryViews = new ConcurrentHashMap<>();
 
 	/**
-	 * Boolean cross table of relations.
+	 * True while a view returned by getBinaryRelations shares the storage of
+	 * the binary relations. The next change copies the storage first.
 	 */
-	private final double[][] relations;
+	private volatile boolean shared;
 
-	private final Collection<Concept> semiConcepts = new ArrayList<>();
+	/**
+	 * Boolean cross table of relations. Null if this context is backed by
+	 * binary relations.
+	 */
+	private double[][] relations;
 
 	/**
 	 * Constructor
@@ -243,12 +349,21 @@ public class Context {
 	 * @param objectNames
 	 * @param attributeNames
 	 * @param relations
+	 *            dense relations, or null if backed by binary relations
+	 * @param binaryRelations
+	 *            binary relations, or null if backed by dense relations
 	 * @param paths
+	 * @param conceptStorage
+	 *            how concepts are stored
 	 */
-	private Context(List<String> objectNames, List<String> attributeNames, double[][] relations, int[][] paths) {
+	private Context(List<String> objectNames, List<String> attributeNames, double[][] relations,
+			BinaryRelations binaryRelations, int[][] paths, ConceptStorage conceptStorage) {
 		this.objectNames = new ArrayList<>(objectNames);
 		this.attributeNames = new ArrayList<>(attributeNames);
+		this.concepts = ConceptStorage.COLUMNAR.equals(conceptStorage)
+				? new ColumnarConceptStore(objectNames.size(), attributeNames.size()) : new IndexedConceptStore();
 		this.relations = relations;
+		this.binaryRelations = binaryRelations;
 		if (paths == null) {
 			this.descriptionPaths = new int[][] {};
 		} else {
@@ -257,21 +372,82 @@ public class Context {
 
 	}
 
+	/**
+	 * Returns true if this context holds concepts of the specified type,
+	 * otherwise false
+	 * 
+	 * @param type
+	 *            concept type
+	 * @return true if this context holds concepts of the specified type
+	 */
+	private static boolean isSupported(ConceptType type) {
+		return ConceptType.FORMAL_CONCEPT.equals(type) || ConceptType.PRECONCEPT.equals(type)
+				|| ConceptType.SEMICONCEPT.equals(type);
+	}
+
+	/**
+	 * Returns the binary relations for a change of a relation, copying their
+	 * storage first if a view returned by getBinaryRelations shares it
+	 */
+	private BinaryRelations unshared() {
+		if (shared) {
+			binaryRelations = binaryRelations.copy();
+			shared = false;
+		}
+		return binaryRelations;
+	}
+
 	/**
 	 * Add formal concept to this context. Returns true if successfully added to
-	 * context, otherwise false. Concepts of unknown type will not be added.
+	 * context, otherwise false. Concepts of unknown type, and concepts equal to
+	 * one already added with the same type, will not be added.
 	 * 
 	 * @param concept
 	 *            concept to add
 	 * @return true if successfully added to context, otherwise false
 	 */
 	public boolean addConcept(Concept concept) {
-		ConceptType type = concept.getConceptType();
-		Optional<Collection<Concept>> concepts = getConceptsOfLive(type);
-		if (concepts.isPresent()) {
-			return concepts.get().add(concept);
+		return isSupported(concept.getConceptType()) && concepts.add(concept);
+	}
+
+	/**
+	 * Adds an object with the specified attributes to this context and
+	 * updates its formal concepts, and its lattice if present, in place. Only
+	 * the concepts whose extent gains the object and the new concepts are
+	 * touched when a lattice is present; otherwise each formal concept is
+	 * visited once. The formal concepts must be all of the formal concepts of
+	 * this context for the threshold they were generated with, and the object
+	 * has a relation value of 1 for each of its attributes.
+	 * 
+	 * @param objectName
+	 *            name of the new object
+	 * @param attributeIndicies
+	 *            attributes of the new object
+	 * @return index of the new object
+	 */
+	public int addObject(String objectName, Collection<Integer> attributeIndicies) {
+		int attributeCount = attributeCount();
+		BitIndexSet attributes = new BitIndexSet(attributeCount);
+		for (Integer attributeIndex : attributeIndicies) {
+			if (attributeIndex < 0 || attributeIndex >= attributeCount) {
+				throw new IllegalArgumentException("Out of Bounds: Attribute Index = " + attributeIndex
+						+ ", Attribute Count = " + attributeCount);
+			}
+			attributes.add(attributeIndex);
 		}
-		return false;
+
+		int objectIndex = objectCount();
+		binaryViews.clear();
+		if (binaryRelations == null) {
+			relations = Arrays.copyOf(relations, objectIndex + 1);
+			relations[objectIndex] = new double[attributeCount];
+			attributes.forEach(j -> relations[objectIndex][j] = 1);
+		} else {
+			binaryRelations = binaryRelations.withObject(attributes);
+		}
+		objectNames.add(objectName);
+		new LatticeUpdates(concepts, conceptLattice).addObject(objectIndex, attributes, attributeCount);
+		return objectIndex;
 	}
 
 	/**
@@ -282,18 +458,32 @@ public class Context {
 	 * @param attributeIndex
 	 */
 	public void addRelation(int objectIndex, int attributeIndex) {
-		relations[objectIndex][attributeIndex] = 1;
+		binaryViews.clear();
+		if (binaryRelations != null) {
+			unshared().addRelation(objectIndex, attributeIndex);
+		} else {
+			relations[objectIndex][attributeIndex] = 1;
+		}
 	}
 
 	/**
 	 * Add relation to context with the specified value. It's up the developer
-	 * to ensure that the object and attribute indexes are within bounds.
+	 * to ensure that the object and attribute indexes are within bounds. If
+	 * this context is backed by binary relations, a value above 0 adds the
+	 * relation and any other value removes it.
 	 * 
 	 * @param objectIndex
 	 * @param attributeIndex
 	 */
 	public void addRelation(int objectIndex, int attributeIndex, double value) {
-		relations[objectIndex][attributeIndex] = value;
+		binaryViews.clear();
+		if (binaryRelations == null) {
+			relations[objectIndex][attributeIndex] = value;
+		} else if (value > 0) {
+			unshared().addRelation(objectIndex, attributeIndex);
+		} else {
+			unshared().removeRelation(objectIndex, attributeIndex);
+		}
 	}
 
 	/**
@@ -322,6 +512,17 @@ public class Context {
 		return attributeNames.size();
 	}
 
+	/**
+	 * Returns count of concepts of the specified type, without copying them
+	 * 
+	 * @param type
+	 *            concept type
+	 * @return count of concepts of the specified type
+	 */
+	public int countOf(ConceptType type) {
+		return isSupported(type) ? concepts.count(type) : 0;
+	}
+
 	/**
 	 * Makes the relations matrix distinct by collapsing rows that have the same
 	 * attributes and collapses columns that have the same objects.
@@ -331,7 +532,7 @@ public class Context {
 	 * @return a new formal context with the clarified relations
 	 */
 	public Context clarify() {
-		ClarifierResult result = Clarifier.clarify(relations);
+		ClarifierResult result = Clarifier.clarify(getRelations());
 
 		List<String> newObjectNames = new ArrayList<>();
 		List<String> newAttributeNames = new ArrayList<>();
@@ -345,7 +546,56 @@ public class Context {
 			String collapsedCol = col.stream().map(m -> attributeNames.get(m)).collect(Collectors.joining(":"));
 			newAttributeNames.add(collapsedCol);
 		}
-		return Context.create(newObjectNames, newAttributeNames, result.getClarifiedCrossTable(), descriptionPaths);
+		if (binaryRelations != null) {
+			return new Context(newObjectNames, newAttributeNames, null,
+					toBinaryRelations(getRelationStorage(), result.getClarifiedCrossTable()), descriptionPaths,
+					getConceptStorage());
+		}
+		return new Context(newObjectNames, newAttributeNames, result.getClarifiedCrossTable(), null, descriptionPaths,
+				getConceptStorage());
+	}
+
+	/**
+	 * Applies the specified action to each concept of the specified type,
+	 * without copying them. Concepts must not be added to this context by the
+	 * action.
+	 * 
+	 * @param type
+	 *            concept type
+	 * @param action
+	 *            action to apply
+	 */
+	public void forEachOf(ConceptType type, Consumer<? super Concept> action) {
+		if (isSupported(type)) {
+			concepts.forEach(type, action);
+		}
+	}
+
+	/**
+	 * Returns read-only binary relations of this context for the specified
+	 * threshold. An object has an attribute if its value is above the
+	 * threshold. The relations are computed once per threshold and kept until
+	 * a relation, object or attribute of this context changes. Later changes
+	 * to this context do not show through relations returned earlier.
+	 * 
+	 * If this context is backed by binary relations, thresholds in [0, 1)
+	 * share its storage until the next change of a relation, which copies the
+	 * storage first.
+	 * 
+	 * @param threshold
+	 *            threshold
+	 * @return read-only binary relations for the specified threshold
+	 */
+	public BinaryRelations getBinaryRelations(double threshold) {
+		return binaryViews.computeIfAbsent(threshold == 0 ? 0d : threshold, t -> {
+			if (binaryRelations == null) {
+				return PackedRelations.of(relations, t).asReadOnly();
+			} else if (t >= 0 && t < 1) {
+				shared = true;
+				return binaryRelations.asReadOnly();
+			}
+			return PackedRelations.of(binaryRelations, t).asReadOnly();
+		});
 	}
 
 	/**
@@ -367,9 +617,8 @@ public class Context {
 	 * @return concepts that have the specified extent and concept type
 	 */
 	public Collection<Concept> getConceptOf(Extent extent, ConceptType conceptType) {
-		Optional<Collection<Concept>> concepts = getConceptsOf(conceptType);
-		if (concepts.isPresent()) {
-			return concepts.get().stream().filter(i -> extent.equals(i.getExtent())).collect(Collectors.toSet());
+		if (isSupported(conceptType)) {
+			return concepts.get(extent, conceptType);
 		}
 		return Collections.emptyList();
 	}
@@ -384,9 +633,8 @@ public class Context {
 	 * @return concepts that have the specified intent and concept type
 	 */
 	public Collection<Concept> getConceptOf(Intent intent, ConceptType conceptType) {
-		Optional<Collection<Concept>> concepts = getConceptsOf(conceptType);
-		if (concepts.isPresent()) {
-			return concepts.get().stream().filter(i -> intent.equals(i.getIntent())).collect(Collectors.toSet());
+		if (isSupported(conceptType)) {
+			return concepts.get(intent, conceptType);
 		}
 		return Collections.emptyList();
 	}
@@ -394,27 +642,15 @@ public class Context {
 	/**
 	 * Get all concepts of the specified type. The collection may be empty. If
 	 * optional itself is empty, then the specified content type is unsupported.
+	 * The collection is a copy, so concepts may be added to this context while
+	 * iterating it.
 	 * 
 	 * @return all concepts of the specified type
+	 * @see #viewOf(ConceptType)
 	 */
 	public Optional<Collection<Concept>> getConceptsOf(ConceptType type) {
-		if (ConceptType.FORMAL_CONCEPT.equals(type)) {
-			return Optional.of(Collections.unmodifiableCollection(new ArrayList<>(formalConcepts)));
-		} else if (ConceptType.PRECONCEPT.equals(type)) {
-			return Optional.of(Collections.unmodifiableCollection(new ArrayList<>(preConcepts)));
-		} else if (ConceptType.SEMICONCEPT.equals(type)) {
-			return Optional.of(Collections.unmodifiableCollection(new ArrayList<>(semiConcepts)));
-		}
-		return Optional.empty();
-	}
-
-	private Optional<Collection<Concept>> getConceptsOfLive(ConceptType type) {
-		if (ConceptType.FORMAL_CONCEPT.equals(type)) {
-			return Optional.of(formalConcepts);
-		} else if (ConceptType.PRECONCEPT.equals(type)) {
-			return Optional.of(preConcepts);
-		} else if (ConceptType.SEMICONCEPT.equals(type)) {
-			return Optional.of(semiConcepts);
+		if (isSupported(type)) {
+			return Optional.of(Collections.unmodifiableCollection(new ArrayList<>(concepts.get(type))));
 		}
 		return Optional.empty();
 	}
@@ -438,36 +674,76 @@ public class Context {
 	 * the attribute exists for the associated object.
 	 * 
 	 * This is the backing table to the context. Any direct changes will create
-	 * an inconsistency with the underlying generated concepts
+	 * an inconsistency with the underlying generated concepts. If this context
+	 * is backed by binary relations, a new table of 0 and 1 values is returned
+	 * on each call. Binary views are not refreshed by direct changes.
+	 * 
+	 * @see #getBinaryRelations(double)
 	 * 
 	 * @return relation cross table of this context.
 	 */
 	public double[][] getRelations() {
+		if (binaryRelations != null) {
+			return binaryRelations.toTable();
+		}
 		return relations;
 	}
 
-	public boolean hasConceptOf(Extent extent, ConceptType conceptType) {
-		Optional<Collection<Concept>> concepts = getConceptsOf(conceptType);
-		if (concepts.isPresent()) {
-			for (Concept concept : concepts.get()) {
-				if (concept.getExtent().equals(extent)) {
-					return true;
-				}
-			}
+	/**
+	 * Returns the lattice of the formal concepts of this context, or empty if
+	 * no generator has computed the cover relation
+	 * 
+	 * @return lattice of the formal concepts
+	 */
+	public Optional<ConceptLattice> getConceptLattice() {
+		return Optional.ofNullable(conceptLattice);
+	}
+
+	/**
+	 * Returns how this context stores its concepts
+	 * 
+	 * @return how this context stores its concepts
+	 */
+	public ConceptStorage getConceptStorage() {
+		return (concepts instanceof ColumnarConceptStore) ? ConceptStorage.COLUMNAR : ConceptStorage.INDEXED;
+	}
+
+	/**
+	 * Returns how this context stores its relations
+	 * 
+	 * @return how this context stores its relations
+	 */
+	public RelationStorage getRelationStorage() {
+		if (binaryRelations == null) {
+			return RelationStorage.DENSE;
 		}
-		return false;
+		return (binaryRelations instanceof SparseRelations) ? RelationStorage.SPARSE : RelationStorage.PACKED;
+	}
+
+	/**
+	 * Returns true if a concept of the specified type has the specified
+	 * extent, otherwise false
+	 * 
+	 * @param extent
+	 *            the extent to match
+	 * @param conceptType
+	 * @return true if a concept of the specified type has the specified extent
+	 */
+	public boolean hasConceptOf(Extent extent, ConceptType conceptType) {
+		return isSupported(conceptType) && concepts.contains(extent, conceptType);
 	}
 
+	/**
+	 * Returns true if a concept of the specified type has the specified
+	 * intent, otherwise false
+	 * 
+	 * @param intent
+	 *            the intent to match
+	 * @param conceptType
+	 * @return true if a concept of the specified type has the specified intent
+	 */
 	public boolean hasConceptOf(Intent intent, ConceptType conceptType) {
-		Optional<Collection<Concept>> concepts = getConceptsOf(conceptType);
-		if (concepts.isPresent()) {
-			for (Concept concept : concepts.get()) {
-				if (concept.getIntent().equals(intent)) {
-					return true;
-				}
-			}
-		}
-		return false;
+		return isSupported(conceptType) && concepts.contains(intent, conceptType);
 	}
 
 	/**
@@ -484,14 +760,16 @@ public class Context {
 	 * @return true if object has attribute, otherwise false
 	 */
 	public boolean hasRelation(int objectIndex, int attributeIndex, double threshold) {
-		try {
-			return relations != null && relations[objectIndex][attributeIndex] > threshold;
-		} catch (Exception e) {
+		if (objectIndex < 0 || objectIndex >= objectCount() || attributeIndex < 0
+				|| attributeIndex >= attributeCount()) {
 			throw new IllegalArgumentException("Out of Bounds: Object Index = " + objectIndex + ", Attribute Index = "
 					+ attributeIndex + ", Object Count = " + this.objectCount() + ". Attribute Count = "
 					+ this.attributeCount());
-
 		}
+		if (binaryRelations != null) {
+			return (binaryRelations.hasRelation(objectIndex, attributeIndex) ? 1 : 0) > threshold;
+		}
+		return relations != null && relations[objectIndex][attributeIndex] > threshold;
 	}
 
 	/**
@@ -503,6 +781,104 @@ public class Context {
 		return objectNames.size();
 	}
 
+	/**
+	 * Removes the specified attribute from this context and updates its formal
+	 * concepts, and its lattice if present, in place. Attributes above the
+	 * removed attribute move down by one in the relations and in every
+	 * concept. A concept whose intent without the attribute is already an
+	 * intent is merged into that concept. Preconcepts and semiconcepts are
+	 * removed.
+	 * 
+	 * @param attributeIndex
+	 *            index of the attribute to remove
+	 */
+	public void removeAttribute(int attributeIndex) {
+		int attributeCount = attributeCount();
+		if (attributeIndex < 0 || attributeIndex >= attributeCount) {
+			throw new IllegalArgumentException(
+					"Out of Bounds: Attribute Index = " + attributeIndex + ", Attribute Count = " + attributeCount);
+		}
+		binaryViews.clear();
+		if (binaryRelations == null) {
+			double[][] remaining = new double[relations.length][attributeCount - 1];
+			for (int i = 0; i < relations.length; i++) {
+				System.arraycopy(relations[i], 0, remaining[i], 0, attributeIndex);
+				System.arraycopy(relations[i], attributeIndex + 1, remaining[i], attributeIndex,
+						attributeCount - attributeIndex - 1);
+			}
+			relations = remaining;
+		} else {
+			binaryRelations = binaryRelations.withoutAttribute(attributeIndex);
+			shared = false;
+		}
+		attributeNames.remove(attributeIndex);
+		new LatticeUpdates(concepts, conceptLattice).removeAttribute(attributeIndex);
+	}
+
+	/**
+	 * Removes the specified object from this context and updates its formal
+	 * concepts, and its lattice if present, in place. Objects above the
+	 * removed object move down by one in the relations and in every concept.
+	 * A concept whose extent without the object is already an extent is
+	 * merged into that concept. Preconcepts and semiconcepts are removed.
+	 * 
+	 * @param objectIndex
+	 *            index of the object to remove
+	 */
+	public void removeObject(int objectIndex) {
+		int objectCount = objectCount();
+		if (objectIndex < 0 || objectIndex >= objectCount) {
+			throw new IllegalArgumentException(
+					"Out of Bounds: Object Index = " + objectIndex + ", Object Count = " + objectCount);
+		}
+		binaryViews.clear();
+		if (binaryRelations == null) {
+			double[][] remaining = new double[objectCount - 1][];
+			System.arraycopy(relations, 0, remaining, 0, objectIndex);
+			System.arraycopy(relations, objectIndex + 1, remaining, objectIndex, objectCount - objectIndex - 1);
+			relations = remaining;
+		} else {
+			binaryRelations = binaryRelations.withoutObject(objectIndex);
+			shared = false;
+		}
+		objectNames.remove(objectIndex);
+		new LatticeUpdates(concepts, conceptLattice).removeObject(objectIndex);
+	}
+
+	/**
+	 * Sets the lattice of the formal concepts of this context
+	 * 
+	 * @param conceptLattice
+	 *            concept lattice, or null to clear
+	 */
+	public void setConceptLattice(ConceptLattice conceptLattice) {
+		this.conceptLattice = conceptLattice;
+	}
+
+	/**
+	 * Returns spliterator over the concepts of the specified type, without
+	 * copying them
+	 * 
+	 * @param type
+	 *            concept type
+	 * @return spliterator over the concepts of the specified type
+	 */
+	public Spliterator<Concept> spliteratorOf(ConceptType type) {
+		return isSupported(type) ? concepts.spliterator(type) : Spliterators.emptySpliterator();
+	}
+
+	/**
+	 * Returns stream of the concepts of the specified type, without copying
+	 * them
+	 * 
+	 * @param type
+	 *            concept type
+	 * @return stream of the concepts of the specified type
+	 */
+	public Stream<Concept> streamOf(ConceptType type) {
+		return StreamSupport.stream(spliteratorOf(type), false);
+	}
+
 	/**
 	 * Returns power set of attributes
 	 * 
@@ -525,6 +901,7 @@ public class Context {
 	 * Prints relation matrix to system out
 	 */
 	public void printRelations() {
+		double[][] relations = getRelations();
 		int rows = relations.length;
 		int cols = relations[0].length;
 		for (int i = 0; i < rows; i++) {
@@ -539,8 +916,18 @@ public class Context {
 		return null;
 	}
 
-	/*
-	 * public ConceptLattice findConceptLattice() { return null; }
+	/**
+	 * Returns read-only live view of the concepts of the specified type, in
+	 * the order they were added. No copy is made, so concepts must not be
+	 * added to this context while iterating the view. Is empty if the type is
+	 * unsupported.
+	 * 
+	 * @param type
+	 *            concept type
+	 * @return read-only live view of the concepts of the specified type
 	 */
+	public Collection<Concept> viewOf(ConceptType type) {
+		return isSupported(type) ? concepts.get(type) : Collections.emptyList();
+	}
 
 }
@@ -0,0 +1,383 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import org.stackwire.fca.Concept.Extent;
+import org.stackwire.fca.Concept.Intent;
+import org.stackwire.fca.stores.ConceptStore;
+import org.stackwire.fca.tags.IndexTag;
+import org.stackwire.fca.utils.BitIndexSet;
+
+/**
+ * Updates the formal concepts of a context, and its lattice if present, in
+ * place after the context changes. The concepts must be all of the formal
+ * concepts of the context before the change.
+ *
+ * With a lattice, a new object is inserted with AddIntent (van der Merwe,
+ * Obiedkov and Kourie 2004), which only visits the concepts above the new
+ * object concept and the concepts that generate new ones. Without a lattice,
+ * each concept is intersected with the row of the new object in order of
+ * increasing intent size (Godin 1995).
+ *
+ * When an object is removed, a concept whose extent loses the object
+ * collapses if the remaining extent is already an extent; the concept below
+ * it then takes its place. Removing an attribute collapses concepts by intent
+ * in the same way. The order of the remaining concepts does not change, so
+ * the lattice is patched by linking the neighbors of each collapsed concept.
+ * Indicies above the removed index are shifted down in every concept, and
+ * the index tags of the remaining concepts are renumbered by rank so that
+ * tags given to new concepts stay unique.
+ */
+final class LatticeUpdates {
+
+	private final ConceptStore concepts;
+
+	private final ConceptLattice lattice;
+
+	/**
+	 * Constructor
+	 *
+	 * @param concepts
+	 *            concepts of the context
+	 * @param lattice
+	 *            lattice of the concepts, or null
+	 */
+	LatticeUpdates(ConceptStore concepts, ConceptLattice lattice) {
+		this.concepts = concepts;
+		this.lattice = lattice;
+	}
+
+	/**
+	 * Adds the concepts created by the specified new object and adds the
+	 * object to the extents of the concepts whose intent it has
+	 *
+	 * @param object
+	 *            index of the new object
+	 * @param attributes
+	 *            attributes of the new object
+	 * @param attributeCount
+	 *            count of attributes of the context
+	 */
+	void addObject(int object, BitIndexSet attributes, int attributeCount) {
+		if (lattice == null) {
+			insert(object, attributes);
+			return;
+		}
+		Intent all = new Intent(new BitIndexSet(attributeCount).addRange(0, attributeCount));
+		Collection<Concept> bottom = concepts.get(all, ConceptType.FORMAL_CONCEPT);
+		int index = bottom.isEmpty() ? -1 : lattice.indexOf(bottom.iterator().next());
+		if (index < 0) {
+			throw new IllegalStateException("Lattice has no bottom concept");
+		}
+
+		int objectConcept = addIntent(attributes, index);
+		BitIndexSet visited = new BitIndexSet(lattice.size());
+		int[] stack = new int[16];
+		int top = 0;
+		stack[top++] = objectConcept;
+		visited.add(objectConcept);
+		while (top > 0) {
+			int c = stack[--top];
+			addToExtent(c, object);
+			for (int upper : lattice.getUpperCovers(c)) {
+				if (visited.add(upper)) {
+					if (top == stack.length) {
+						stack = Arrays.copyOf(stack, top * 2);
+					}
+					stack[top++] = upper;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the position of the concept with the specified intent, creating
+	 * it below the specified generator if it does not exist
+	 *
+	 * @param intent
+	 *            intent of the concept
+	 * @param generator
+	 *            concept whose intent contains the specified intent
+	 * @return position of the concept with the specified intent
+	 */
+	private int addIntent(BitIndexSet intent, int generator) {
+		generator = maximalConcept(intent, generator);
+		if (intentOf(generator).equals(intent)) {
+			return generator;
+		}
+
+		int[] parents = new int[4];
+		int count = 0;
+		for (int candidate : lattice.getUpperCovers(generator)) {
+			if (!intentOf(candidate).isSubsetOf(intent)) {
+				candidate = addIntent(new BitIndexSet(intentOf(candidate)).and(intent), candidate);
+			}
+			BitIndexSet candidateIntent = intentOf(candidate);
+			boolean parent = true;
+			for (int k = 0; k < count && parent;) {
+				BitIndexSet parentIntent = intentOf(parents[k]);
+				if (candidateIntent.isSubsetOf(parentIntent)) {
+					parent = false;
+				} else if (parentIntent.isSubsetOf(candidateIntent)) {
+					parents[k] = parents[--count];
+				} else {
+					k++;
+				}
+			}
+			if (parent) {
+				if (count == parents.length) {
+					parents = Arrays.copyOf(parents, count * 2);
+				}
+				parents[count++] = candidate;
+			}
+		}
+
+		Concept concept = new Concept.ConceptBuilder(
+				new Extent(new BitIndexSet(lattice.getConcept(generator).getExtent().getBitSet())),
+				new Intent(new BitIndexSet(intent))).conceptTag(new IndexTag(lattice.size())).build();
+		int created = lattice.add(concept);
+		concepts.add(concept);
+		for (int k = 0; k < count; k++) {
+			lattice.removeEdge(generator, parents[k]);
+			lattice.addEdge(created, parents[k]);
+		}
+		lattice.addEdge(generator, created);
+		return created;
+	}
+
+	/**
+	 * Removes the concept at the specified position from the cover relation,
+	 * linking each of its lower covers to each of its upper covers that is
+	 * not above another upper cover of the lower cover
+	 */
+	private void bypass(int c) {
+		int[] lower = lattice.getLowerCovers(c);
+		int[] upper = lattice.getUpperCovers(c);
+		for (int l : lower) {
+			lattice.removeEdge(l, c);
+		}
+		for (int u : upper) {
+			lattice.removeEdge(c, u);
+		}
+		for (int l : lower) {
+			int[] covers = lattice.getUpperCovers(l);
+			for (int u : upper) {
+				boolean cover = true;
+				for (int k = 0; k < covers.length && cover; k++) {
+					cover = !intentOf(u).isSubsetOf(intentOf(covers[k]));
+				}
+				if (cover) {
+					lattice.addEdge(l, u);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the specified attribute, shifting down the attributes above it
+	 *
+	 * @param attribute
+	 *            index of the removed attribute
+	 */
+	void removeAttribute(int attribute) {
+		remove(attribute, false);
+	}
+
+	/**
+	 * Removes the specified object, shifting down the objects above it
+	 *
+	 * @param object
+	 *            index of the removed object
+	 */
+	void removeObject(int object) {
+		remove(object, true);
+	}
+
+	/**
+	 * Removes the specified object or attribute from the formal concepts.
+	 * Concepts of other types are dropped, since their indicies refer to the
+	 * context before the change.
+	 */
+	private void remove(int index, boolean object) {
+		List<Concept> formal = new ArrayList<>(
+				(lattice == null) ? concepts.get(ConceptType.FORMAL_CONCEPT) : lattice.getConcepts());
+		Concept[] replacements = new Concept[formal.size()];
+		BitIndexSet collapsed = new BitIndexSet(formal.size());
+		for (int c = 0; c < replacements.length; c++) {
+			Concept concept = formal.get(c);
+			BitIndexSet indicies = (object ? concept.getExtent() : concept.getIntent()).getBitSet();
+			if (indicies.contains(index)) {
+				BitIndexSet reduced = new BitIndexSet(indicies);
+				reduced.remove(index);
+				if (object ? concepts.contains(new Extent(reduced), ConceptType.FORMAL_CONCEPT)
+						: concepts.contains(new Intent(reduced), ConceptType.FORMAL_CONCEPT)) {
+					collapsed.add(c);
+					continue;
+				}
+			}
+			replacements[c] = shift(concept, index, object);
+		}
+		renumber(replacements);
+
+		if (lattice != null) {
+			collapsed.forEach(this::bypass);
+			lattice.update(replacements);
+		}
+		for (int c = 0; c < replacements.length; c++) {
+			if (replacements[c] != formal.get(c)) {
+				concepts.remove(formal.get(c));
+			}
+		}
+		for (int c = 0; c < replacements.length; c++) {
+			if (replacements[c] != null && replacements[c] != formal.get(c)) {
+				concepts.add(replacements[c]);
+			}
+		}
+		for (ConceptType type : ConceptType.values()) {
+			if (!ConceptType.FORMAL_CONCEPT.equals(type)) {
+				new ArrayList<>(concepts.get(type)).forEach(concepts::remove);
+			}
+		}
+	}
+
+	/**
+	 * Replaces the index tag of each remaining concept with its rank among the
+	 * index tags of the remaining concepts. With a lattice, where tags are
+	 * positions, the rank is the position after the collapsed concepts are
+	 * dropped.
+	 */
+	private static void renumber(Concept[] replacements) {
+		int[] tags = new int[replacements.length];
+		int count = 0;
+		for (Concept concept : replacements) {
+			if (concept != null && concept.getConceptTag() instanceof IndexTag) {
+				tags[count++] = ((IndexTag) concept.getConceptTag()).getIndex();
+			}
+		}
+		Arrays.sort(tags, 0, count);
+		for (int c = 0; c < replacements.length; c++) {
+			Concept concept = replacements[c];
+			if (concept != null && concept.getConceptTag() instanceof IndexTag) {
+				int tag = ((IndexTag) concept.getConceptTag()).getIndex();
+				int rank = Arrays.binarySearch(tags, 0, count, tag);
+				if (rank != tag) {
+					replacements[c] = new Concept.ConceptBuilder(concept.getExtent(), concept.getIntent())
+							.conceptType(concept.getConceptType()).conceptTag(new IndexTag(rank)).build();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the specified concept with the specified object or attribute
+	 * removed and the indicies above it shifted down, or the concept itself if
+	 * it has no such indicies
+	 */
+	private static Concept shift(Concept concept, int index, boolean object) {
+		BitIndexSet indicies = (object ? concept.getExtent() : concept.getIntent()).getBitSet();
+		if (indicies.nextSetBit(index) < 0) {
+			return concept;
+		}
+		BitIndexSet shifted = new BitIndexSet(indicies.length());
+		indicies.forEach(i -> {
+			if (i < index) {
+				shifted.add(i);
+			} else if (i > index) {
+				shifted.add(i - 1);
+			}
+		});
+		return new Concept.ConceptBuilder(object ? new Extent(shifted) : concept.getExtent(),
+				object ? concept.getIntent() : new Intent(shifted)).conceptType(concept.getConceptType())
+						.conceptTag(concept.getConceptTag()).build();
+	}
+
+	/**
+	 * Replaces the concept at the specified position with a concept that
+	 * also has the specified object
+	 */
+	private void addToExtent(int c, int object) {
+		Concept concept = lattice.getConcept(c);
+		Concept updated = withObject(concept, object);
+		concepts.remove(concept);
+		concepts.add(updated);
+		lattice.set(c, updated);
+	}
+
+	/**
+	 * Inserts the specified new object by intersecting each concept with its
+	 * attributes. The first concept to produce an intersection that is not an
+	 * intent has the smallest intent, so its extent is the extent of the
+	 * intersection before the object was added. New concepts are tagged after
+	 * the highest index tag.
+	 */
+	private void insert(int object, BitIndexSet attributes) {
+		List<Concept> formal = new ArrayList<>(concepts.get(ConceptType.FORMAL_CONCEPT));
+		formal.sort(Comparator.comparingInt(concept -> concept.getIntent().getBitSet().cardinality()));
+		int tag = formal.stream().map(Concept::getConceptTag).filter(IndexTag.class::isInstance)
+				.mapToInt(t -> ((IndexTag) t).getIndex()).max().orElse(-1);
+		for (Concept concept : formal) {
+			BitIndexSet intent = concept.getIntent().getBitSet();
+			if (intent.isSubsetOf(attributes)) {
+				concepts.remove(concept);
+				concepts.add(withObject(concept, object));
+				continue;
+			}
+			Intent intersection = new Intent(new BitIndexSet(intent).and(attributes));
+			if (!concepts.contains(intersection, ConceptType.FORMAL_CONCEPT)) {
+				BitIndexSet extent = new BitIndexSet(concept.getExtent().getBitSet());
+				extent.add(object);
+				concepts.add(new Concept.ConceptBuilder(new Extent(extent), intersection)
+						.conceptTag(new IndexTag(++tag)).build());
+			}
+		}
+	}
+
+	private BitIndexSet intentOf(int c) {
+		return lattice.getConcept(c).getIntent().getBitSet();
+	}
+
+	/**
+	 * Returns the highest concept at or above the specified generator whose
+	 * intent still contains the specified intent
+	 */
+	private int maximalConcept(BitIndexSet intent, int generator) {
+		boolean parentIsMaximal = true;
+		while (parentIsMaximal) {
+			parentIsMaximal = false;
+			for (int parent : lattice.getUpperCovers(generator)) {
+				if (intent.isSubsetOf(intentOf(parent))) {
+					generator = parent;
+					parentIsMaximal = true;
+					break;
+				}
+			}
+		}
+		return generator;
+	}
+
+	private static Concept withObject(Concept concept, int object) {
+		BitIndexSet extent = new BitIndexSet(concept.getExtent().getBitSet());
+		extent.add(object);
+		return new Concept.ConceptBuilder(new Extent(extent), concept.getIntent())
+				.conceptType(concept.getConceptType()).conceptTag(concept.getConceptTag()).build();
+	}
+}
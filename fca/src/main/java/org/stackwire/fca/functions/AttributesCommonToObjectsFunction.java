@@ -20,43 +20,38 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.function.Function;
 
-import org.stackwire.fca.utils.Utils;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.relations.PackedRelations;
+import org.stackwire.fca.utils.BitIndexSet;
 
 /**
  * This is operator B'. It returns a set of attributes that are common to a
  * collection of objects.
+ * 
+ * @see Derivation
  */
 public class AttributesCommonToObjectsFunction implements Function<Collection<Integer>, Set<Integer>> {
 
-	private final double[][] relations;
+	private final BinaryRelations relations;
 
-	private final double threshold;
+	public AttributesCommonToObjectsFunction(BinaryRelations relations) {
+		this.relations = relations;
+	}
 
 	public AttributesCommonToObjectsFunction(double[][] relations, double threshold) {
-		this.relations = relations;
-		this.threshold = threshold;
+		this(PackedRelations.of(relations, threshold));
 	}
 
 	@Override
 	public Set<Integer> apply(Collection<Integer> indicies) { // objects
-		if (indicies == null || indicies.isEmpty()) {
-			return Utils.rangeSet(0, relations[0].length - 1);
-		}
-		Set<Integer> attributes = new HashSet<>();
-		int cols = relations[0].length;
-		for (int j = 0; j < cols; j++) {
-			boolean add = true;
+		BitIndexSet attributes = new BitIndexSet(relations.attributeCount());
+		attributes.addRange(0, relations.attributeCount());
+		if (indicies != null) {
 			for (int i : indicies) {// rows
-				if (relations[i][j] <= threshold) {
-					add = false;
-					break;
-				}
-			}
-			if (add) {
-				attributes.add(j);
+				relations.andRow(i, attributes);
 			}
 		}
-		return attributes;
+		return new HashSet<>(attributes.asSet());
 	}
 
 }
@@ -0,0 +1,165 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.functions;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.stackwire.fca.ConceptType;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.utils.BitIndexSet;
+
+/**
+ * Classifies pairs of extents and intents by concept type over one set of
+ * binary relations. Each pair takes one derivation of the extent, A', and one
+ * of the intent, B', and the type follows from subset tests on packed words:
+ *
+ * FORMAL_CONCEPT: A' = B and B' = A
+ *
+ * SEMICONCEPT: A' = B or B' = A
+ *
+ * PRECONCEPT: A is a subset of B', so every object of A has every attribute
+ * of B
+ *
+ * Batches are split into chunks that are classified in parallel, each chunk
+ * deriving into buffers of its own task. Instances are thread safe.
+ *
+ * @see ConceptType#getConceptType
+ */
+public final class ConceptClassifier {
+
+	private final int chunkSize;
+
+	private final ForkJoinPool pool;
+
+	private final BinaryRelations relations;
+
+	/**
+	 * Constructor using the common pool and chunks of 256 pairs
+	 *
+	 * @param relations
+	 *            binary relations of the context
+	 */
+	public ConceptClassifier(BinaryRelations relations) {
+		this(relations, ForkJoinPool.commonPool(), 256);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param relations
+	 *            binary relations of the context
+	 * @param pool
+	 *            pool to classify batches on
+	 * @param chunkSize
+	 *            count of pairs classified by each task
+	 */
+	public ConceptClassifier(BinaryRelations relations, ForkJoinPool pool, int chunkSize) {
+		if (relations == null) {
+			throw new IllegalArgumentException("relations is null");
+		}
+		if (pool == null) {
+			throw new IllegalArgumentException("pool is null");
+		}
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+		}
+		this.relations = relations;
+		this.pool = pool;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Returns the concept type of the specified extent and intent
+	 *
+	 * @param extent
+	 *            objects of the pair
+	 * @param intent
+	 *            attributes of the pair
+	 * @return concept type
+	 */
+	public ConceptType classify(BitIndexSet extent, BitIndexSet intent) {
+		return classify(relations, extent, intent);
+	}
+
+	/**
+	 * Returns the concept type of each pair of the specified extents and
+	 * intents, in the same order
+	 *
+	 * @param extents
+	 *            objects of each pair
+	 * @param intents
+	 *            attributes of each pair
+	 * @return concept type of each pair
+	 */
+	public ConceptType[] classify(List<BitIndexSet> extents, List<BitIndexSet> intents) {
+		if (extents.size() != intents.size()) {
+			throw new IllegalArgumentException(
+					"Extent and intent counts differ: " + extents.size() + ", " + intents.size());
+		}
+		ConceptType[] types = new ConceptType[extents.size()];
+		int chunks = (types.length + chunkSize - 1) / chunkSize;
+		pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+			BitIndexSet attributes = new BitIndexSet(relations.attributeCount());
+			BitIndexSet objects = new BitIndexSet(relations.objectCount());
+			int end = Math.min(types.length, (chunk + 1) * chunkSize);
+			for (int k = chunk * chunkSize; k < end; k++) {
+				types[k] = classify(relations, extents.get(k), intents.get(k), attributes, objects);
+			}
+		})).join();
+		return types;
+	}
+
+	/**
+	 * Returns the concept type of the specified extent and intent over the
+	 * specified relations. Only the two derived sets are allocated.
+	 *
+	 * @param relations
+	 *            binary relations of the context
+	 * @param extent
+	 *            objects of the pair
+	 * @param intent
+	 *            attributes of the pair
+	 * @return concept type
+	 */
+	public static ConceptType classify(BinaryRelations relations, BitIndexSet extent, BitIndexSet intent) {
+		return classify(relations, extent, intent, new BitIndexSet(relations.attributeCount()),
+				new BitIndexSet(relations.objectCount()));
+	}
+
+	private static ConceptType classify(BinaryRelations relations, BitIndexSet extent, BitIndexSet intent,
+			BitIndexSet attributes, BitIndexSet objects) {
+		attributes.clear().addRange(0, relations.attributeCount());
+		for (int i = extent.nextSetBit(0); i >= 0; i = extent.nextSetBit(i + 1)) {
+			relations.andRow(i, attributes);
+		}
+		objects.clear().addRange(0, relations.objectCount());
+		for (int j = intent.nextSetBit(0); j >= 0; j = intent.nextSetBit(j + 1)) {
+			relations.andColumn(j, objects);
+		}
+		boolean x = attributes.equals(intent);
+		boolean y = objects.equals(extent);
+		if (x && y) {
+			return ConceptType.FORMAL_CONCEPT;
+		} else if (x || y) {
+			return ConceptType.SEMICONCEPT;
+		} else if (extent.isSubsetOf(objects)) {
+			return ConceptType.PRECONCEPT;
+		}
+		return ConceptType.UNKNOWN;
+	}
+}
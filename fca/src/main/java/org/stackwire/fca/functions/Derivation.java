@@ -0,0 +1,189 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.functions;
+
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.utils.BitIndexSet;
+
+/**
+ * Derivation operators over binary relations. Each operator intersects packed
+ * rows or columns a word at a time and writes its result into a set supplied
+ * by the caller, so repeated derivations do not allocate.
+ *
+ * Instances hold scratch buffers and are not thread safe. Use one instance
+ * per thread.
+ *
+ * @see AttributesCommonToObjectsFunction
+ * @see ObjectsCommonToAttributesFunction
+ */
+public final class Derivation {
+
+	private final BinaryRelations relations;
+
+	private final BitIndexSet scratch;
+
+	public Derivation(BinaryRelations relations) {
+		this.relations = relations;
+		this.scratch = new BitIndexSet(Math.max(relations.objectCount(), relations.attributeCount()));
+	}
+
+	/**
+	 * Count of attributes of the underlying relations
+	 *
+	 * @return count of attributes
+	 */
+	public int attributeCount() {
+		return relations.attributeCount();
+	}
+
+	/**
+	 * Writes the attributes common to the specified objects into the
+	 * specified result set. If there are no objects, the result is all
+	 * attributes.
+	 *
+	 * @param objects
+	 *            set of objects
+	 * @param result
+	 *            set to write the attributes to. Must not be the objects set.
+	 * @return the result set
+	 */
+	public BitIndexSet attributesCommonTo(BitIndexSet objects, BitIndexSet result) {
+		result.clear().addRange(0, relations.attributeCount());
+		for (int i = objects.nextSetBit(0); i >= 0; i = objects.nextSetBit(i + 1)) {
+			relations.andRow(i, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the attributes common to the first count objects of the specified
+	 * array into the specified buffer, in ascending order
+	 *
+	 * @param objects
+	 *            object indicies
+	 * @param count
+	 *            count of object indicies to use
+	 * @param result
+	 *            buffer to write the attributes to. Must hold
+	 *            attributeCount() entries.
+	 * @return count of attributes written
+	 */
+	public int attributesCommonTo(int[] objects, int count, int[] result) {
+		scratch.clear().addRange(0, relations.attributeCount());
+		for (int k = 0; k < count; k++) {
+			relations.andRow(objects[k], scratch);
+		}
+		return drain(scratch, result);
+	}
+
+	/**
+	 * Writes the closure of the specified objects, A'', into the specified
+	 * closure set. The intent A' is written into the attributes set.
+	 *
+	 * @param objects
+	 *            set of objects
+	 * @param attributes
+	 *            set to write the intent to
+	 * @param closure
+	 *            set to write the closed extent to. May be the objects set.
+	 * @return the closure set
+	 */
+	public BitIndexSet closeObjects(BitIndexSet objects, BitIndexSet attributes, BitIndexSet closure) {
+		return objectsCommonTo(attributesCommonTo(objects, attributes), closure);
+	}
+
+	/**
+	 * Writes the closure of the specified attributes, B'', into the specified
+	 * closure set. The extent B' is written into the objects set.
+	 *
+	 * @param attributes
+	 *            set of attributes
+	 * @param objects
+	 *            set to write the extent to
+	 * @param closure
+	 *            set to write the closed intent to. May be the attributes set.
+	 * @return the closure set
+	 */
+	public BitIndexSet closeAttributes(BitIndexSet attributes, BitIndexSet objects, BitIndexSet closure) {
+		return attributesCommonTo(objectsCommonTo(attributes, objects), closure);
+	}
+
+	private static int drain(BitIndexSet set, int[] result) {
+		int n = 0;
+		for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+			result[n++] = i;
+		}
+		return n;
+	}
+
+	/**
+	 * Count of objects of the underlying relations
+	 *
+	 * @return count of objects
+	 */
+	public int objectCount() {
+		return relations.objectCount();
+	}
+
+	/**
+	 * Writes the objects common to the specified attributes into the
+	 * specified result set. If there are no attributes, the result is all
+	 * objects.
+	 *
+	 * @param attributes
+	 *            set of attributes
+	 * @param result
+	 *            set to write the objects to. Must not be the attributes set.
+	 * @return the result set
+	 */
+	public BitIndexSet objectsCommonTo(BitIndexSet attributes, BitIndexSet result) {
+		result.clear().addRange(0, relations.objectCount());
+		for (int j = attributes.nextSetBit(0); j >= 0; j = attributes.nextSetBit(j + 1)) {
+			relations.andColumn(j, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the objects common to the first count attributes of the specified
+	 * array into the specified buffer, in ascending order
+	 *
+	 * @param attributes
+	 *            attribute indicies
+	 * @param count
+	 *            count of attribute indicies to use
+	 * @param result
+	 *            buffer to write the objects to. Must hold objectCount()
+	 *            entries.
+	 * @return count of objects written
+	 */
+	public int objectsCommonTo(int[] attributes, int count, int[] result) {
+		scratch.clear().addRange(0, relations.objectCount());
+		for (int k = 0; k < count; k++) {
+			relations.andColumn(attributes[k], scratch);
+		}
+		return drain(scratch, result);
+	}
+
+	/**
+	 * Returns the underlying relations
+	 *
+	 * @return the underlying relations
+	 */
+	public BinaryRelations relations() {
+		return relations;
+	}
+}
@@ -20,43 +20,37 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.function.Function;
 
-import org.stackwire.fca.utils.Utils;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.relations.PackedRelations;
+import org.stackwire.fca.utils.BitIndexSet;
 
 /**
  * This is operator A'. It returns a set of objects that are common to a
  * collection of attributes.
+ * 
+ * @see Derivation
  */
 public class ObjectsCommonToAttributesFunction implements Function<Collection<Integer>, Set<Integer>> {
 
-	private final double[][] relations;
+	private final BinaryRelations relations;
 
-	private final double threshold;
+	public ObjectsCommonToAttributesFunction(BinaryRelations relations) {
+		this.relations = relations;
+	}
 
 	public ObjectsCommonToAttributesFunction(double[][] relations, double threshold) {
-		this.relations = relations;
-		this.threshold = threshold;
+		this(PackedRelations.of(relations, threshold));
 	}
 
 	@Override
 	public Set<Integer> apply(Collection<Integer> indicies) { // attributes
-		if (indicies == null || indicies.isEmpty()) {
-			return Utils.rangeSet(0, relations.length - 1);
-		}
-		Set<Integer> objects = new HashSet<>();
-		int rows = relations.length;
-		for (int i = 0; i < rows; i++) {
-			boolean add = true;
+		BitIndexSet objects = new BitIndexSet(relations.objectCount());
+		objects.addRange(0, relations.objectCount());
+		if (indicies != null) {
 			for (int j : indicies) {// cols
-				if (relations[i][j] <= threshold) {
-					add = false;
-					break;
-				}
-			}
-			if (add) {
-				objects.add(i);
+				relations.andColumn(j, objects);
 			}
-
 		}
-		return objects;
+		return new HashSet<>(objects.asSet());
 	}
 }
@@ -0,0 +1,375 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.functions;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.ConceptLattice;
+import org.stackwire.fca.ConceptType;
+import org.stackwire.fca.Context;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.utils.BitIndexSet;
+
+/**
+ * Computes the intensional stability of the formal concepts of a context: the
+ * fraction of the subsets of the extent whose common attributes are exactly
+ * the intent (Kuznetsov 2007).
+ *
+ * If the context has a lattice of all of its formal concepts, stability is
+ * exact for every concept. Each subset of an extent closes to the extent of
+ * exactly one concept at or below it, so the count of subsets that close to
+ * the extent itself is 2^|extent| minus the counts of all subconcepts
+ * (Roth, Obiedkov and Kourie 2008). Counts are computed in order of extent
+ * size, each size in parallel.
+ *
+ * Otherwise, concepts with small extents are computed exactly by enumerating
+ * the subsets of the extent. Once the common attributes of a subset reach the
+ * intent, every superset within the extent is counted at once. Concepts with
+ * larger extents are estimated from random subsets, with the count of
+ * samples chosen by the Hoeffding bound for the requested error and
+ * confidence. Concepts are computed in parallel, and each worker thread
+ * reuses its derivation buffers.
+ */
+public final class StabilityEngine {
+
+	/**
+	 * How a stability was computed
+	 */
+	public enum Method {
+		EXACT, MONTE_CARLO, RECURRENCE
+	}
+
+	/**
+	 * Stability of a concept with the bound of its error
+	 */
+	public static final class Stability {
+
+		private final double error;
+
+		private final Method method;
+
+		private final double value;
+
+		private Stability(double value, double error, Method method) {
+			this.value = value;
+			this.error = error;
+			this.method = method;
+		}
+
+		/**
+		 * Returns the bound of the error of the value, 0 if exact. A Monte
+		 * Carlo value is within the bound with the confidence of the engine.
+		 *
+		 * @return bound of the error
+		 */
+		public double getError() {
+			return error;
+		}
+
+		public Method getMethod() {
+			return method;
+		}
+
+		public double getValue() {
+			return value;
+		}
+
+		@Override
+		public String toString() {
+			return "Stability [value=" + value + ", error=" + error + ", method=" + method + "]";
+		}
+	}
+
+	/**
+	 * Derivation buffers of a single chunk of concepts
+	 */
+	private static final class Worker {
+
+		/**
+		 * Common attributes of the subset at each depth of the enumeration
+		 */
+		private final BitIndexSet[] intents;
+
+		private final BitIndexSet sample;
+
+		private Worker(BinaryRelations relations, int exactLimit) {
+			this.intents = new BitIndexSet[exactLimit + 1];
+			for (int d = 0; d < intents.length; d++) {
+				intents[d] = new BitIndexSet(relations.attributeCount());
+			}
+			this.sample = new BitIndexSet(relations.objectCount());
+		}
+	}
+
+	/**
+	 * Largest extent size that is enumerated exactly
+	 */
+	public static final int MAX_EXACT_LIMIT = 30;
+
+	/**
+	 * Returns the count of chunks that the specified count of concepts is
+	 * split into, a few for each thread of the pool. Each chunk takes every
+	 * chunks-th concept and its own buffers.
+	 */
+	private int chunks(int count) {
+		return Math.max(1, Math.min(count, pool.getParallelism() * 4));
+	}
+
+	/**
+	 * Returns the specified count divided by 2^size
+	 */
+	private static double scale(BigInteger count, int size) {
+		int shift = Math.max(0, count.bitLength() - 62);
+		return Math.scalb((double) count.shiftRight(shift).longValue(), shift - size);
+	}
+
+	private final double confidence;
+
+	private final double error;
+
+	private final int exactLimit;
+
+	private final ForkJoinPool pool;
+
+	private final long seed;
+
+	/**
+	 * Constructor using the common pool, exact enumeration up to 16 objects,
+	 * and Monte Carlo estimates within 0.01 at 95% confidence
+	 */
+	public StabilityEngine() {
+		this(ForkJoinPool.commonPool(), 16, 0.01, 0.95, 0);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param pool
+	 *            pool to compute on
+	 * @param exactLimit
+	 *            largest extent size to enumerate exactly, at most
+	 *            {@link #MAX_EXACT_LIMIT}
+	 * @param error
+	 *            bound of the error of Monte Carlo estimates, in (0, 1)
+	 * @param confidence
+	 *            probability that a Monte Carlo estimate is within the error,
+	 *            in (0, 1)
+	 * @param seed
+	 *            seed of the random subsets
+	 */
+	public StabilityEngine(ForkJoinPool pool, int exactLimit, double error, double confidence, long seed) {
+		if (pool == null) {
+			throw new IllegalArgumentException("pool is null");
+		}
+		if (exactLimit < 0 || exactLimit > MAX_EXACT_LIMIT) {
+			throw new IllegalArgumentException("exactLimit must be in [0, " + MAX_EXACT_LIMIT + "]: " + exactLimit);
+		}
+		if (!(error > 0 && error < 1)) {
+			throw new IllegalArgumentException("error must be in (0, 1): " + error);
+		}
+		if (!(confidence > 0 && confidence < 1)) {
+			throw new IllegalArgumentException("confidence must be in (0, 1): " + confidence);
+		}
+		this.pool = pool;
+		this.exactLimit = exactLimit;
+		this.error = error;
+		this.confidence = confidence;
+		this.seed = seed;
+	}
+
+	/**
+	 * Returns count of subsets of the objects from the specified depth on
+	 * that, added to the subset whose common attributes are at that depth,
+	 * have exactly the specified intent
+	 */
+	private static long count(BinaryRelations relations, BitIndexSet[] intents, int[] objects, int depth,
+			int intentSize) {
+		BitIndexSet intent = intents[depth];
+		if (intent.cardinality() == intentSize) {
+			return 1L << (objects.length - depth);
+		}
+		if (depth == objects.length) {
+			return 0;
+		}
+		BitIndexSet next = intents[depth + 1];
+		relations.andRow(objects[depth], next.copyFrom(intent));
+		long count = count(relations, intents, objects, depth + 1, intentSize);
+		next.copyFrom(intent);
+		return count + count(relations, intents, objects, depth + 1, intentSize);
+	}
+
+	/**
+	 * Returns exact stability by enumerating the subsets of the extent
+	 */
+	private Stability exact(BinaryRelations relations, Worker worker, BitIndexSet extent, BitIndexSet intent) {
+		int[] objects = extent.toArray();
+		worker.intents[0].clear().addRange(0, relations.attributeCount());
+		long count = count(relations, worker.intents, objects, 0, intent.cardinality());
+		return new Stability(Math.scalb((double) count, -objects.length), 0, Method.EXACT);
+	}
+
+	/**
+	 * Returns stability estimated from random subsets of the extent
+	 */
+	private Stability monteCarlo(BinaryRelations relations, Worker worker, BitIndexSet extent, BitIndexSet intent,
+			int index) {
+		long samples = samples();
+		SplittableRandom random = new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L));
+		int intentSize = intent.cardinality();
+		BitIndexSet common = worker.intents[0];
+		long[] words = extent.words();
+		long hits = 0;
+		for (long s = 0; s < samples; s++) {
+			long[] sample = worker.sample.clear().words();
+			for (int w = 0; w < Math.min(words.length, sample.length); w++) {
+				sample[w] = words[w] & random.nextLong();
+			}
+			common.clear().addRange(0, relations.attributeCount());
+			for (int i = worker.sample.nextSetBit(0); i >= 0 && common.cardinality() > intentSize; i = worker.sample
+					.nextSetBit(i + 1)) {
+				relations.andRow(i, common);
+			}
+			if (common.cardinality() == intentSize) {
+				hits++;
+			}
+		}
+		return new Stability((double) hits / samples, error, Method.MONTE_CARLO);
+	}
+
+	/**
+	 * Returns the count of Monte Carlo samples for the error and confidence of
+	 * this engine
+	 */
+	private long samples() {
+		return (long) Math.ceil(Math.log(2 / (1 - confidence)) / (2 * error * error));
+	}
+
+	/**
+	 * Returns the stability of each formal concept of the specified context
+	 *
+	 * @param formalContext
+	 *            formal context with generated concepts
+	 * @param threshold
+	 *            threshold the concepts were generated with
+	 * @return stability of each formal concept, in the order of the concepts
+	 *         of the context
+	 */
+	public Map<Concept, Stability> stabilityOf(Context formalContext, double threshold) {
+		BinaryRelations relations = formalContext.getBinaryRelations(threshold);
+		ConceptLattice lattice = formalContext.getConceptLattice().orElse(null);
+		if (lattice != null && lattice.size() == formalContext.countOf(ConceptType.FORMAL_CONCEPT)) {
+			return recurrence(lattice);
+		}
+
+		List<Concept> concepts = new ArrayList<>(formalContext.viewOf(ConceptType.FORMAL_CONCEPT));
+		Stability[] stabilities = new Stability[concepts.size()];
+		int chunks = chunks(concepts.size());
+		pool.submit(() -> IntStream.range(0, chunks).parallel().forEach(chunk -> {
+			Worker worker = new Worker(relations, exactLimit);
+			for (int c = chunk; c < concepts.size(); c += chunks) {
+				BitIndexSet extent = concepts.get(c).getExtent().getBitSet();
+				BitIndexSet intent = concepts.get(c).getIntent().getBitSet();
+				stabilities[c] = (extent.cardinality() <= exactLimit) ? exact(relations, worker, extent, intent)
+						: monteCarlo(relations, worker, extent, intent, c);
+			}
+		})).join();
+
+		Map<Concept, Stability> result = new LinkedHashMap<>(concepts.size() * 2);
+		for (int c = 0; c < stabilities.length; c++) {
+			result.put(concepts.get(c), stabilities[c]);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns exact stability of each concept of the lattice from the counts
+	 * of its subconcepts, in the order of the lattice
+	 */
+	private Map<Concept, Stability> recurrence(ConceptLattice lattice) {
+		int n = lattice.size();
+		int[] sizes = new int[n];
+		for (int c = 0; c < n; c++) {
+			sizes[c] = lattice.getConcept(c).getExtent().getBitSet().cardinality();
+		}
+		int[] order = IntStream.range(0, n).boxed().sorted(Comparator.comparingInt(c -> sizes[c]))
+				.mapToInt(Integer::intValue).toArray();
+
+		BigInteger[] counts = new BigInteger[n];
+		BitIndexSet[] visited = new BitIndexSet[chunks(n)];
+		for (int from = 0; from < n;) {
+			int to = from;
+			while (to < n && sizes[order[to]] == sizes[order[from]]) {
+				to++;
+			}
+			int[] level = Arrays.copyOfRange(order, from, to);
+			pool.submit(() -> IntStream.range(0, Math.min(visited.length, level.length)).parallel().forEach(chunk -> {
+				if (visited[chunk] == null) {
+					visited[chunk] = new BitIndexSet(n);
+				}
+				for (int k = chunk; k < level.length; k += visited.length) {
+					int c = level[k];
+					counts[c] = subsets(lattice, c, sizes[c], counts, visited[chunk].clear());
+				}
+			})).join();
+			from = to;
+		}
+
+		Map<Concept, Stability> result = new LinkedHashMap<>(n * 2);
+		for (int c = 0; c < n; c++) {
+			result.put(lattice.getConcept(c), new Stability(scale(counts[c], sizes[c]), 0, Method.RECURRENCE));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns count of the subsets of the extent of the specified concept
+	 * whose closure is the extent, subtracting the counts of all concepts
+	 * below it, found by walking down the lower covers
+	 */
+	private static BigInteger subsets(ConceptLattice lattice, int c, int size, BigInteger[] counts,
+			BitIndexSet visited) {
+		BigInteger count = BigInteger.ONE.shiftLeft(size);
+		int[] stack = lattice.getLowerCovers(c);
+		int top = stack.length;
+		stack = Arrays.copyOf(stack, Math.max(16, top));
+		for (int k = 0; k < top; k++) {
+			visited.add(stack[k]);
+		}
+		while (top > 0) {
+			int d = stack[--top];
+			count = count.subtract(counts[d]);
+			for (int lower : lattice.getLowerCovers(d)) {
+				if (visited.add(lower)) {
+					if (top == stack.length) {
+						stack = Arrays.copyOf(stack, top * 2);
+					}
+					stack[top++] = lower;
+				}
+			}
+		}
+		return count;
+	}
+}
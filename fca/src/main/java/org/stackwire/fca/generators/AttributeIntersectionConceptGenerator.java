@@ -15,54 +15,41 @@
  */
 package org.stackwire.fca.generators;
 
-import java.util.Arrays;
-import java.util.Optional;
-
 import org.stackwire.fca.Concept;
 import org.stackwire.fca.Concept.Extent;
 import org.stackwire.fca.Concept.Intent;
 import org.stackwire.fca.ConceptGenerator;
-import org.stackwire.fca.ConceptType;
+import org.stackwire.fca.ConceptSink;
 import org.stackwire.fca.Context;
-import org.stackwire.fca.functions.AttributesCommonToObjectsFunction;
-import org.stackwire.fca.functions.ObjectsCommonToAttributesFunction;
-import org.stackwire.fca.utils.Extents;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.tags.IndexTag;
 
+/**
+ * Formal concept generator that intersects the extents of single attributes.
+ * Every extent is an intersection of attribute columns; see
+ * {@link IntersectionClosure}.
+ */
 public class AttributeIntersectionConceptGenerator implements ConceptGenerator {
 
 	@Override
 	public Context generateConceptsFor(Context formalContext, double threshold) {
-		AttributesCommonToObjectsFunction attributesFunction = new AttributesCommonToObjectsFunction(
-				formalContext.getRelations(), threshold);
-
-		ObjectsCommonToAttributesFunction objectsFunction = new ObjectsCommonToAttributesFunction(
-				formalContext.getRelations(), threshold);
-
-		Concept sup = Concept.newSupremum(formalContext.objectCount() - 1);
-		formalContext.addConcept(sup);
-
-		Concept inf = Concept.newInfimum(formalContext.attributeCount() - 1);
-		objectsFunction.apply(inf.getIntent().getIndicies());
-
-		formalContext
-				.addConcept(new Concept.ConceptBuilder(new Extent(objectsFunction.apply(inf.getIntent().getIndicies())),
-						inf.getIntent()).build());
-
-		for (int m = 0; m < formalContext.attributeCount(); m++) {
-			for (Concept concept : formalContext.getConceptsOf(ConceptType.FORMAL_CONCEPT).get()) {
-				Extent gOpr = new Extent(objectsFunction.apply(Arrays.asList(m)));
-				Optional<Extent> intersectExtent = Extents.intersect(gOpr, concept.getExtent());
-				if (intersectExtent.isPresent()) {
-					Extent extent = intersectExtent.get();
-					if (!formalContext.hasConceptOf(extent, ConceptType.FORMAL_CONCEPT)) {
-						Concept newConcept = new Concept.ConceptBuilder(extent,
-								new Intent(attributesFunction.apply(extent.getIndicies()))).build();
-						formalContext.addConcept(newConcept);
-					}
-				}
-			}
-		}
+		generateConceptsFor(formalContext, threshold, concept -> {
+			formalContext.addConcept(concept);
+			return true;
+		});
 		return formalContext;
 	}
 
+	/**
+	 * Generates formal concepts in breadth first order, from the top concept
+	 * down, and passes them to the sink without adding them to the context
+	 */
+	@Override
+	public void generateConceptsFor(Context formalContext, double threshold, ConceptSink sink) {
+		BinaryRelations relations = formalContext.getBinaryRelations(threshold);
+		int[] index = new int[1];
+		new IntersectionClosure(relations, true, (extent, intent) -> sink.accept(
+				new Concept.ConceptBuilder(new Extent(extent), new Intent(intent)).conceptTag(new IndexTag(index[0]++))
+						.build())).close();
+	}
 }
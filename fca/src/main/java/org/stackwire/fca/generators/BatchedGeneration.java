@@ -0,0 +1,138 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.generators;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.Concept.Extent;
+import org.stackwire.fca.Concept.Intent;
+import org.stackwire.fca.Context;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.tags.IndexTag;
+import org.stackwire.fca.utils.BitIndexSet;
+
+/**
+ * State shared by the tasks of one parallel generation. Each task takes a
+ * worker with its own search and buffer of concepts, which is added to the
+ * context in batches under the lock of the context. Index tags are unique but
+ * their order depends on scheduling.
+ *
+ * @param <S>
+ *            type of search run by each worker
+ */
+final class BatchedGeneration<S> {
+
+	/**
+	 * Search and concept buffer of a single task
+	 */
+	final class Worker {
+
+		private final List<Concept> buffer = new ArrayList<>();
+
+		final S search;
+
+		private Worker() {
+			this.search = searches.apply(relations, this::emit);
+		}
+
+		/**
+		 * Buffers the concept of the specified extent and intent, flushing a
+		 * full buffer
+		 *
+		 * @param extent
+		 *            extent of the concept
+		 * @param intent
+		 *            intent of the concept
+		 * @return true to continue the search
+		 */
+		boolean emit(BitIndexSet extent, BitIndexSet intent) {
+			buffer.add(concept(extent, intent));
+			if (buffer.size() >= BATCH_SIZE) {
+				flush();
+			}
+			return true;
+		}
+
+		/**
+		 * Adds the buffered concepts to the context
+		 */
+		void flush() {
+			if (!buffer.isEmpty()) {
+				synchronized (formalContext) {
+					buffer.forEach(formalContext::addConcept);
+				}
+				buffer.clear();
+			}
+		}
+	}
+
+	static final int BATCH_SIZE = 1024;
+
+	private final Context formalContext;
+
+	private final AtomicInteger index = new AtomicInteger();
+
+	private final BinaryRelations relations;
+
+	private final BiFunction<BinaryRelations, BiPredicate<BitIndexSet, BitIndexSet>, S> searches;
+
+	/**
+	 * Constructor
+	 *
+	 * @param formalContext
+	 *            context to add the concepts to
+	 * @param relations
+	 *            binary relations of the context
+	 * @param searches
+	 *            creates the search of a worker from the relations and the
+	 *            emitter of the worker
+	 */
+	BatchedGeneration(Context formalContext, BinaryRelations relations,
+			BiFunction<BinaryRelations, BiPredicate<BitIndexSet, BitIndexSet>, S> searches) {
+		this.formalContext = formalContext;
+		this.relations = relations;
+		this.searches = searches;
+	}
+
+	/**
+	 * Returns a concept of the specified extent and intent with the next index
+	 * tag
+	 *
+	 * @param extent
+	 *            extent of the concept
+	 * @param intent
+	 *            intent of the concept
+	 * @return concept
+	 */
+	Concept concept(BitIndexSet extent, BitIndexSet intent) {
+		return new Concept.ConceptBuilder(new Extent(extent), new Intent(intent))
+				.conceptTag(new IndexTag(index.getAndIncrement())).build();
+	}
+
+	/**
+	 * Returns a new worker for a task
+	 *
+	 * @return new worker
+	 */
+	Worker worker() {
+		return new Worker();
+	}
+}
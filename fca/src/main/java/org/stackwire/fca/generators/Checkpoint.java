@@ -0,0 +1,126 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.generators;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.stackwire.fca.utils.BitIndexSet;
+
+/**
+ * Position of a concept enumeration in lectic order: the count of concepts
+ * emitted so far and the intent of the last one. Resuming from a checkpoint
+ * emits exactly the concepts after that intent.
+ *
+ * @see NextClosureConceptGenerator#resumeFrom(Checkpoint)
+ */
+public final class Checkpoint {
+
+	/**
+	 * Reads a checkpoint written by {@link #writeTo(DataOutput)} for a
+	 * context with the specified count of attributes
+	 *
+	 * @param in
+	 *            input to read from
+	 * @param attributeCount
+	 *            count of attributes of the context to resume
+	 * @return checkpoint
+	 * @throws IOException
+	 *             if the checkpoint cannot be read, or its intent does not
+	 *             fit the count of attributes
+	 */
+	public static Checkpoint readFrom(DataInput in, int attributeCount) throws IOException {
+		long position = in.readLong();
+		int length = in.readInt();
+		if (position < 1 || length < 0) {
+			throw new IOException("Malformed checkpoint");
+		}
+		if (length > (attributeCount + 63) >>> 6) {
+			throw new IOException("Checkpoint intent of " + length + " words exceeds " + attributeCount
+					+ " attributes");
+		}
+		BitIndexSet intent = new BitIndexSet(attributeCount);
+		long[] words = intent.words();
+		for (int w = 0; w < length; w++) {
+			words[w] = in.readLong();
+		}
+		if (intent.nextSetBit(attributeCount) >= 0) {
+			throw new IOException("Checkpoint intent exceeds " + attributeCount + " attributes");
+		}
+		return new Checkpoint(position, intent);
+	}
+
+	private final BitIndexSet intent;
+
+	private final long position;
+
+	/**
+	 * Constructor
+	 *
+	 * @param position
+	 *            count of concepts emitted
+	 * @param intent
+	 *            intent of the last concept emitted. Copied.
+	 */
+	public Checkpoint(long position, BitIndexSet intent) {
+		if (position < 1) {
+			throw new IllegalArgumentException("Position must be positive");
+		}
+		this.position = position;
+		this.intent = new BitIndexSet(intent);
+	}
+
+	/**
+	 * Returns intent of the last concept emitted
+	 *
+	 * @return copy of the intent of the last concept emitted
+	 */
+	public BitIndexSet getIntent() {
+		return new BitIndexSet(intent);
+	}
+
+	/**
+	 * Returns count of concepts emitted before this checkpoint
+	 *
+	 * @return count of concepts emitted
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	/**
+	 * Writes this checkpoint as the position followed by the words of the
+	 * intent
+	 *
+	 * @param out
+	 *            output to write to
+	 * @throws IOException
+	 *             if the checkpoint cannot be written
+	 */
+	public void writeTo(DataOutput out) throws IOException {
+		long[] words = intent.words();
+		int length = words.length;
+		while (length > 0 && words[length - 1] == 0) {
+			length--;
+		}
+		out.writeLong(position);
+		out.writeInt(length);
+		for (int w = 0; w < length; w++) {
+			out.writeLong(words[w]);
+		}
+	}
+}
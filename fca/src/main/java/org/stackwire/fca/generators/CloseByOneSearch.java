@@ -0,0 +1,201 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.generators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+import org.stackwire.fca.functions.Derivation;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.utils.BitIndexSet;
+
+/**
+ * Fast Close-by-One search over packed bit sets (Krajca, Outrata and
+ * Vychodil 2010)
+ *
+ * When a child fails the canonicity test, its intent is remembered for the
+ * attribute that produced it and passed down the tree. A descendant skips
+ * that attribute without computing a closure if the remembered intent agrees
+ * with its own intent on the attributes before it.
+ *
+ * Extents shrink down the tree, so with a minimum support a child whose
+ * extent has fewer objects is dropped along with its subtree before its
+ * intent is computed.
+ *
+ * Not thread safe, like the Derivation it closes with.
+ *
+ * @see Derivation
+ */
+final class CloseByOneSearch {
+
+	/**
+	 * Concept of the search tree with the attribute to continue from and the
+	 * intents of failed canonicity tests, indexed by attribute. Entries of
+	 * the failed array are shared between nodes and must not be changed.
+	 */
+	static final class Node {
+
+		final BitIndexSet extent;
+
+		final BitIndexSet[] failed;
+
+		final BitIndexSet intent;
+
+		final int y;
+
+		Node(BitIndexSet extent, BitIndexSet intent, int y, BitIndexSet[] failed) {
+			this.extent = extent;
+			this.intent = intent;
+			this.y = y;
+			this.failed = failed;
+		}
+	}
+
+	private final int attributeCount;
+
+	private final Derivation derivation;
+
+	/**
+	 * Receives the extent and intent of each concept and returns false to
+	 * stop the search. The sets must not be changed.
+	 */
+	private final BiPredicate<BitIndexSet, BitIndexSet> emitter;
+
+	/**
+	 * Minimum count of objects in the extent of a child
+	 */
+	private final int minSupport;
+
+	private final BinaryRelations relations;
+
+	private final BitIndexSet scratch;
+
+	CloseByOneSearch(BinaryRelations relations, BiPredicate<BitIndexSet, BitIndexSet> emitter) {
+		this(relations, 0, emitter);
+	}
+
+	CloseByOneSearch(BinaryRelations relations, int minSupport, BiPredicate<BitIndexSet, BitIndexSet> emitter) {
+		this.relations = relations;
+		this.minSupport = minSupport;
+		this.emitter = emitter;
+		this.derivation = new Derivation(relations);
+		this.attributeCount = relations.attributeCount();
+		this.scratch = new BitIndexSet(attributeCount);
+	}
+
+	/**
+	 * Emits the concept of the specified node and returns its canonical
+	 * children, or null if the emitter stopped the search
+	 *
+	 * @param node
+	 *            node of the search tree
+	 * @return canonical children, or null if stopped
+	 */
+	List<Node> expand(Node node) {
+		if (!emitter.test(node.extent, node.intent)) {
+			return null;
+		}
+		if (node.y >= attributeCount) {
+			return new ArrayList<>(0);
+		}
+		List<BitIndexSet> extents = new ArrayList<>();
+		List<BitIndexSet> intents = new ArrayList<>();
+		BitIndexSet[] failed = node.failed;
+		for (int j = node.y; j < attributeCount; j++) {
+			if (node.intent.contains(j) || !agreesBefore(failed[j], node.intent, j)) {
+				continue;
+			}
+			BitIndexSet extent = new BitIndexSet(node.extent);
+			relations.andColumn(j, extent);
+			if (minSupport > 0 && extent.cardinality() < minSupport) {
+				continue;
+			}
+			BitIndexSet intent = derivation.attributesCommonTo(extent, new BitIndexSet(attributeCount));
+			if (agreesBefore(intent, node.intent, j)) {
+				extents.add(extent);
+				intents.add(intent);
+			} else {
+				if (failed == node.failed) {
+					failed = failed.clone();
+				}
+				failed[j] = intent;
+			}
+		}
+		List<Node> children = new ArrayList<>(extents.size());
+		for (int k = 0; k < extents.size(); k++) {
+			BitIndexSet intent = intents.get(k);
+			children.add(new Node(extents.get(k), intent, firstAfter(intent, node.intent), failed));
+		}
+		return children;
+	}
+
+	/**
+	 * Returns true if the specified set has no attribute before j that is
+	 * outside of the specified intent
+	 */
+	private boolean agreesBefore(BitIndexSet set, BitIndexSet intent, int j) {
+		int first = scratch.copyFrom(set).andNot(intent).nextSetBit(0);
+		return first < 0 || first >= j;
+	}
+
+	/**
+	 * Returns the attribute after the one that produced the child intent,
+	 * which is the smallest attribute of the child not in the parent
+	 */
+	private int firstAfter(BitIndexSet child, BitIndexSet parent) {
+		return scratch.copyFrom(child).andNot(parent).nextSetBit(0) + 1;
+	}
+
+	/**
+	 * Returns the root node, the concept of all objects
+	 *
+	 * @param relations
+	 *            binary relations
+	 * @return root node
+	 */
+	static Node root(BinaryRelations relations) {
+		int objectCount = relations.objectCount();
+		int attributeCount = relations.attributeCount();
+		BitIndexSet extent = new BitIndexSet(objectCount).addRange(0, objectCount);
+		BitIndexSet intent = new Derivation(relations).attributesCommonTo(extent, new BitIndexSet(attributeCount));
+		BitIndexSet[] failed = new BitIndexSet[attributeCount];
+		Arrays.fill(failed, new BitIndexSet());
+		return new Node(extent, intent, 0, failed);
+	}
+
+	/**
+	 * Enumerates the concept of the specified node and all of its canonical
+	 * descendants
+	 *
+	 * @param node
+	 *            node of the search tree
+	 * @return false if the emitter stopped the search, otherwise true
+	 */
+	boolean search(Node node) {
+		List<Node> children = expand(node);
+		if (children == null) {
+			return false;
+		}
+		for (Node child : children) {
+			if (!search(child)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.generators;
+
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.utils.BitIndexSet;
+
+/**
+ * Quality measure of formal concepts with an upper bound over the subtrees of
+ * a Close-by-One search. Below a concept of the search tree, extents are
+ * subsets of its extent, and intents are supersets of its intent that only
+ * add attributes from the attribute the concept continues from.
+ *
+ * @see TopKConceptGenerator
+ */
+public interface ConceptScore {
+
+	/**
+	 * Lift of the intent as an itemset: its support divided by the product of
+	 * the supports of its attributes. Concepts with an empty extent score 0.
+	 * The bound assumes the extent keeps all of its objects while every
+	 * attribute that may still be added, and that some object of the extent
+	 * has, lowers the expected support.
+	 *
+	 * The supports of the attributes are computed once for each relations
+	 * scored in turn, so the relations must not change while a generator uses
+	 * the score.
+	 *
+	 * @return lift score
+	 */
+	static ConceptScore lift() {
+		return new ConceptScore() {
+
+			/**
+			 * Relations of the last score and the support of each of their
+			 * attributes
+			 */
+			final class Supports {
+
+				private final BinaryRelations relations;
+
+				private final double[] values;
+
+				private Supports(BinaryRelations relations) {
+					this.relations = relations;
+					this.values = new double[relations.attributeCount()];
+					int objectCount = relations.objectCount();
+					BitIndexSet scratch = new BitIndexSet(objectCount);
+					for (int j = 0; j < values.length; j++) {
+						scratch.clear().addRange(0, objectCount);
+						relations.andColumn(j, scratch);
+						values[j] = (double) scratch.cardinality() / objectCount;
+					}
+				}
+			}
+
+			private volatile Supports supports;
+
+			/**
+			 * Returns the product of the supports of the attributes of the
+			 * intent and of the attributes from y on that meet the extent
+			 */
+			private double expected(BinaryRelations relations, BitIndexSet extent, BitIndexSet intent, int y) {
+				double[] values = supportsOf(relations);
+				BitIndexSet scratch = new BitIndexSet(relations.objectCount());
+				double expected = 1;
+				for (int j = 0; j < values.length; j++) {
+					if (intent.contains(j)) {
+						expected *= values[j];
+					} else if (j >= y) {
+						relations.andColumn(j, scratch.copyFrom(extent));
+						if (!scratch.isEmpty()) {
+							expected *= values[j];
+						}
+					}
+				}
+				return expected;
+			}
+
+			/**
+			 * Returns the support of each attribute of the specified
+			 * relations, computing them when the relations differ from those
+			 * of the last score
+			 */
+			private double[] supportsOf(BinaryRelations relations) {
+				Supports current = supports;
+				if (current == null || current.relations != relations) {
+					current = new Supports(relations);
+					supports = current;
+				}
+				return current.values;
+			}
+
+			@Override
+			public double score(BinaryRelations relations, BitIndexSet extent, BitIndexSet intent) {
+				if (extent.isEmpty()) {
+					return 0;
+				}
+				return support().score(relations, extent, intent)
+						/ expected(relations, extent, intent, relations.attributeCount());
+			}
+
+			@Override
+			public double upperBound(BinaryRelations relations, BitIndexSet extent, BitIndexSet intent, int y) {
+				if (extent.isEmpty()) {
+					return 0;
+				}
+				return support().score(relations, extent, intent) / expected(relations, extent, intent, y);
+			}
+		};
+	}
+
+	/**
+	 * Estimate of the intensional stability from the smallest count of
+	 * objects that separate the extent from the extent of a lower neighbor,
+	 * 1 - 2^-min (Buzmakov, Kuznetsov and Napoli 2014). The extents of the
+	 * lower neighbors are the largest intersections of the extent with the
+	 * columns of the attributes outside of the intent. Since the count is at
+	 * most the size of the extent, 1 - 2^-|extent| bounds the subtree.
+	 *
+	 * @return stability estimate score
+	 */
+	static ConceptScore stability() {
+		return new ConceptScore() {
+
+			@Override
+			public double score(BinaryRelations relations, BitIndexSet extent, BitIndexSet intent) {
+				int size = extent.cardinality();
+				int min = size;
+				BitIndexSet scratch = new BitIndexSet(relations.objectCount());
+				for (int j = 0; j < relations.attributeCount() && min > 0; j++) {
+					if (!intent.contains(j)) {
+						relations.andColumn(j, scratch.copyFrom(extent));
+						min = Math.min(min, size - scratch.cardinality());
+					}
+				}
+				return 1 - Math.pow(2, -min);
+			}
+
+			@Override
+			public double upperBound(BinaryRelations relations, BitIndexSet extent, BitIndexSet intent, int y) {
+				return 1 - Math.pow(2, -extent.cardinality());
+			}
+		};
+	}
+
+	/**
+	 * Fraction of the objects in the extent. Support does not grow down the
+	 * search tree, so the score is its own bound.
+	 *
+	 * @return support score
+	 */
+	static ConceptScore support() {
+		return new ConceptScore() {
+
+			@Override
+			public double score(BinaryRelations relations, BitIndexSet extent, BitIndexSet intent) {
+				int objectCount = relations.objectCount();
+				return (objectCount == 0) ? 0 : (double) extent.cardinality() / objectCount;
+			}
+
+			@Override
+			public double upperBound(BinaryRelations relations, BitIndexSet extent, BitIndexSet intent, int y) {
+				return score(relations, extent, intent);
+			}
+		};
+	}
+
+	/**
+	 * Returns the score of the specified concept
+	 *
+	 * @param relations
+	 *            binary relations of the context
+	 * @param extent
+	 *            extent of the concept
+	 * @param intent
+	 *            intent of the concept
+	 * @return score of the concept
+	 */
+	double score(BinaryRelations relations, BitIndexSet extent, BitIndexSet intent);
+
+	/**
+	 * Returns a bound that is at least the score of the specified concept and
+	 * of every concept below it in the search tree
+	 *
+	 * @param relations
+	 *            binary relations of the context
+	 * @param extent
+	 *            extent of the concept
+	 * @param intent
+	 *            intent of the concept
+	 * @param y
+	 *            first attribute that concepts below may add to the intent
+	 * @return upper bound of the scores of the subtree
+	 */
+	double upperBound(BinaryRelations relations, BitIndexSet extent, BitIndexSet intent, int y);
+}
@@ -15,14 +15,106 @@
  */
 package org.stackwire.fca.generators;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.stackwire.fca.Concept;
 import org.stackwire.fca.ConceptGenerator;
+import org.stackwire.fca.ConceptLattice;
+import org.stackwire.fca.ConceptType;
 import org.stackwire.fca.Context;
+import org.stackwire.fca.utils.BitIndexSet;
 
+/**
+ * Computes the cover relation of the formal concepts already in a context and
+ * sets it as the lattice of the context. No concepts are added, so the
+ * concepts may be any subset of the lattice, such as an iceberg.
+ *
+ * The upper covers of a concept are the minimal concepts whose intent is a
+ * proper subset of its intent. Candidates are drawn from the concepts that
+ * share the rarest object of the extent, in order of decreasing intent size,
+ * so a candidate is a cover unless its intent is contained in a cover already
+ * found. Concepts are processed in parallel. The threshold is not used.
+ */
 public class ConceptsCoverConceptGenerator implements ConceptGenerator {
 
 	@Override
 	public Context generateConceptsFor(Context formalContext, double threshold) {
-		return null;
+		List<Concept> concepts = new ArrayList<>(formalContext.viewOf(ConceptType.FORMAL_CONCEPT));
+		int n = concepts.size();
+		BitIndexSet[] extents = new BitIndexSet[n];
+		BitIndexSet[] intents = new BitIndexSet[n];
+		int[] sizes = new int[n];
+		for (int c = 0; c < n; c++) {
+			extents[c] = new BitIndexSet(concepts.get(c).getExtent().getBitSet());
+			intents[c] = new BitIndexSet(concepts.get(c).getIntent().getBitSet());
+			sizes[c] = intents[c].cardinality();
+		}
+
+		int[] bySize = IntStream.range(0, n).boxed().sorted(Comparator.comparingInt(c -> -sizes[c]))
+				.mapToInt(Integer::intValue).toArray();
+		int[][] byObject = objectLists(extents, bySize, formalContext.objectCount());
+
+		int[][] upperCovers = new int[n][];
+		IntStream.range(0, n).parallel().forEach(c -> {
+			int[] candidates = bySize;
+			for (int g = extents[c].nextSetBit(0); g >= 0; g = extents[c].nextSetBit(g + 1)) {
+				if (byObject[g].length < candidates.length) {
+					candidates = byObject[g];
+				}
+			}
+			upperCovers[c] = upperCovers(c, candidates, intents, sizes);
+		});
+
+		formalContext.setConceptLattice(new ConceptLattice(concepts, upperCovers));
+		return formalContext;
 	}
 
+	/**
+	 * Returns, for each object, the concepts whose extent holds the object in
+	 * the order of the specified concepts
+	 */
+	private static int[][] objectLists(BitIndexSet[] extents, int[] order, int objectCount) {
+		int[] counts = new int[objectCount];
+		for (BitIndexSet extent : extents) {
+			extent.forEach(g -> counts[g]++);
+		}
+		int[][] lists = new int[objectCount][];
+		for (int g = 0; g < objectCount; g++) {
+			lists[g] = new int[counts[g]];
+			counts[g] = 0;
+		}
+		for (int c : order) {
+			extents[c].forEach(g -> lists[g][counts[g]++] = c);
+		}
+		return lists;
+	}
+
+	/**
+	 * Returns the upper covers of concept c among the specified candidates,
+	 * which are ordered by decreasing intent size
+	 */
+	private static int[] upperCovers(int c, int[] candidates, BitIndexSet[] intents, int[] sizes) {
+		int[] covers = new int[4];
+		int count = 0;
+		for (int d : candidates) {
+			if (sizes[d] >= sizes[c] || !intents[d].isSubsetOf(intents[c])) {
+				continue;
+			}
+			boolean cover = true;
+			for (int k = 0; k < count && cover; k++) {
+				cover = !intents[d].isSubsetOf(intents[covers[k]]);
+			}
+			if (cover) {
+				if (count == covers.length) {
+					covers = Arrays.copyOf(covers, count * 2);
+				}
+				covers[count++] = d;
+			}
+		}
+		return Arrays.copyOf(covers, count);
+	}
 }
@@ -0,0 +1,190 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.generators;
+
+import java.util.function.Predicate;
+
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.utils.BitIndexSet;
+
+/**
+ * Enumerates the subsets of a closed set whose derivation is the derivation
+ * of the whole set. For an extent these are the sets of objects that generate
+ * the concept; for an intent, the sets of attributes.
+ *
+ * Subsets are searched depth first, adding elements in ascending order and
+ * intersecting their rows into the derivation. Derivations only shrink as
+ * elements are added, so once a subset reaches the target derivation every
+ * extension of it is emitted without further intersections, and a subset is
+ * dropped when adding all of the remaining elements does not reach the
+ * target. Every subset visited is therefore emitted or leads to one that is.
+ *
+ * The derivation at each depth of the search is kept in a buffer that is
+ * reused between calls, so instances are not thread safe.
+ */
+final class DerivedSubsets {
+
+	/**
+	 * Derivation of the subset at each depth
+	 */
+	private BitIndexSet[] derivations = new BitIndexSet[0];
+
+	/**
+	 * Elements of the closed set in ascending order
+	 */
+	private int[] elements;
+
+	/**
+	 * Row of each element, as a set of indicies of the other side
+	 */
+	private final BitIndexSet[] rows;
+
+	private final BitIndexSet scratch;
+
+	private final int size;
+
+	private final BitIndexSet subset;
+
+	/**
+	 * Intersection of the rows of the elements from each position on
+	 */
+	private BitIndexSet[] suffixes = new BitIndexSet[0];
+
+	private BitIndexSet target;
+
+	/**
+	 * Constructor
+	 *
+	 * @param rows
+	 *            row of each element, as a set of indicies of the other side
+	 * @param size
+	 *            count of indicies of the other side
+	 */
+	DerivedSubsets(BitIndexSet[] rows, int size) {
+		this.rows = rows;
+		this.size = size;
+		this.subset = new BitIndexSet(rows.length);
+		this.scratch = new BitIndexSet(size);
+	}
+
+	/**
+	 * Returns subsets of intents, derived through the columns of the
+	 * specified relations
+	 *
+	 * @param relations
+	 *            binary relations
+	 * @return subsets of intents
+	 */
+	static DerivedSubsets ofAttributes(BinaryRelations relations) {
+		int objectCount = relations.objectCount();
+		BitIndexSet[] columns = new BitIndexSet[relations.attributeCount()];
+		for (int j = 0; j < columns.length; j++) {
+			columns[j] = new BitIndexSet(objectCount).addRange(0, objectCount);
+			relations.andColumn(j, columns[j]);
+		}
+		return new DerivedSubsets(columns, objectCount);
+	}
+
+	/**
+	 * Returns subsets of extents, derived through the rows of the specified
+	 * relations
+	 *
+	 * @param relations
+	 *            binary relations
+	 * @return subsets of extents
+	 */
+	static DerivedSubsets ofObjects(BinaryRelations relations) {
+		int attributeCount = relations.attributeCount();
+		BitIndexSet[] rows = new BitIndexSet[relations.objectCount()];
+		for (int i = 0; i < rows.length; i++) {
+			rows[i] = new BitIndexSet(attributeCount).addRange(0, attributeCount);
+			relations.andRow(i, rows[i]);
+		}
+		return new DerivedSubsets(rows, attributeCount);
+	}
+
+	/**
+	 * Passes each subset of the specified closed set whose derivation is the
+	 * specified target to the action, until it returns false. The subset is
+	 * reused after the call returns.
+	 *
+	 * @param closed
+	 *            closed set
+	 * @param target
+	 *            derivation of the closed set
+	 * @param action
+	 *            receives each subset
+	 * @return false if the action stopped the enumeration, otherwise true
+	 */
+	boolean forEach(BitIndexSet closed, BitIndexSet target, Predicate<BitIndexSet> action) {
+		this.target = target;
+		elements = closed.toArray();
+		if (derivations.length < elements.length + 1) {
+			derivations = new BitIndexSet[elements.length + 1];
+			suffixes = new BitIndexSet[elements.length + 1];
+			for (int k = 0; k < derivations.length; k++) {
+				derivations[k] = new BitIndexSet(size);
+				suffixes[k] = new BitIndexSet(size);
+			}
+		}
+		suffixes[elements.length].clear().addRange(0, size);
+		for (int k = elements.length - 1; k >= 0; k--) {
+			suffixes[k].copyFrom(suffixes[k + 1]).and(rows[elements[k]]);
+		}
+		subset.clear();
+		derivations[0].clear().addRange(0, size);
+		return search(0, 0, action);
+	}
+
+	/**
+	 * Emits the subset and every extension of it by elements from the
+	 * specified position on
+	 */
+	private boolean extend(int position, Predicate<BitIndexSet> action) {
+		if (!action.test(subset)) {
+			return false;
+		}
+		for (int k = position; k < elements.length; k++) {
+			subset.add(elements[k]);
+			boolean more = extend(k + 1, action);
+			subset.remove(elements[k]);
+			if (!more) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean search(int depth, int position, Predicate<BitIndexSet> action) {
+		BitIndexSet derivation = derivations[depth];
+		if (derivation.equals(target)) {
+			return extend(position, action);
+		}
+		if (!scratch.copyFrom(derivation).and(suffixes[position]).equals(target)) {
+			return true;
+		}
+		for (int k = position; k < elements.length; k++) {
+			derivations[depth + 1].copyFrom(derivation).and(rows[elements[k]]);
+			subset.add(elements[k]);
+			boolean more = search(depth + 1, k + 1, action);
+			subset.remove(elements[k]);
+			if (!more) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.generators;
+
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.Concept.Extent;
+import org.stackwire.fca.Concept.Intent;
+import org.stackwire.fca.ConceptGenerator;
+import org.stackwire.fca.ConceptSink;
+import org.stackwire.fca.Context;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.tags.IndexTag;
+
+/**
+ * Formal concept generator implemented with the Fast Close-by-One (FCbO)
+ * algorithm. See {@link CloseByOneSearch}.
+ *
+ * @see ParallelFastCloseByOneConceptGenerator
+ */
+public final class FastCloseByOneConceptGenerator implements ConceptGenerator {
+
+	@Override
+	public Context generateConceptsFor(Context formalContext, double threshold) {
+		generateConceptsFor(formalContext, threshold, concept -> {
+			formalContext.addConcept(concept);
+			return true;
+		});
+		return formalContext;
+	}
+
+	/**
+	 * Generates formal concepts in depth first order and passes them to the
+	 * sink without adding them to the context
+	 */
+	@Override
+	public void generateConceptsFor(Context formalContext, double threshold, ConceptSink sink) {
+		BinaryRelations relations = formalContext.getBinaryRelations(threshold);
+		int[] index = new int[1];
+		CloseByOneSearch search = new CloseByOneSearch(relations, (extent, intent) -> sink.accept(
+				new Concept.ConceptBuilder(new Extent(extent), new Intent(intent)).conceptTag(new IndexTag(index[0]++))
+						.build()));
+		search.search(CloseByOneSearch.root(relations));
+	}
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.generators;
+
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.Concept.Extent;
+import org.stackwire.fca.Concept.Intent;
+import org.stackwire.fca.ConceptGenerator;
+import org.stackwire.fca.ConceptSink;
+import org.stackwire.fca.Context;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.tags.IndexTag;
+
+/**
+ * Generates the iceberg of the concept lattice: the formal concepts whose
+ * extent holds at least a minimum support, given as a fraction of the
+ * objects of the context.
+ *
+ * Runs the Fast Close-by-One search with support pruning. Extents only shrink
+ * from a concept to its descendants, so a subtree is dropped as soon as its
+ * extent falls below the support, as in level-wise closed itemset mining. The
+ * threshold is used for the binary relations, as with other generators. To
+ * also compute the cover relation, run {@link ConceptsCoverConceptGenerator}
+ * afterwards.
+ */
+public final class IcebergConceptGenerator implements ConceptGenerator {
+
+	private final double minSupport;
+
+	/**
+	 * Constructor
+	 *
+	 * @param minSupport
+	 *            minimum fraction of the objects in the extent of a concept,
+	 *            in [0, 1]
+	 */
+	public IcebergConceptGenerator(double minSupport) {
+		if (!(minSupport >= 0 && minSupport <= 1)) {
+			throw new IllegalArgumentException("minSupport must be in [0, 1]: " + minSupport);
+		}
+		this.minSupport = minSupport;
+	}
+
+	@Override
+	public Context generateConceptsFor(Context formalContext, double threshold) {
+		generateConceptsFor(formalContext, threshold, concept -> {
+			formalContext.addConcept(concept);
+			return true;
+		});
+		return formalContext;
+	}
+
+	/**
+	 * Generates the frequent formal concepts in depth first order and passes
+	 * them to the sink without adding them to the context
+	 */
+	@Override
+	public void generateConceptsFor(Context formalContext, double threshold, ConceptSink sink) {
+		BinaryRelations relations = formalContext.getBinaryRelations(threshold);
+		int minCount = minCount(relations.objectCount());
+		int[] index = new int[1];
+		CloseByOneSearch search = new CloseByOneSearch(relations, minCount, (extent, intent) -> sink.accept(
+				new Concept.ConceptBuilder(new Extent(extent), new Intent(intent)).conceptTag(new IndexTag(index[0]++))
+						.build()));
+		search.search(CloseByOneSearch.root(relations));
+	}
+
+	/**
+	 * Returns the minimum support as a fraction of the objects
+	 *
+	 * @return minimum support
+	 */
+	public double getMinSupport() {
+		return minSupport;
+	}
+
+	/**
+	 * Returns the minimum count of objects in the extent of a concept for the
+	 * specified count of objects, rounded up
+	 *
+	 * @param objectCount
+	 *            count of objects
+	 * @return minimum count of objects
+	 */
+	public int minCount(int objectCount) {
+		return (int) Math.ceil(minSupport * objectCount);
+	}
+}
@@ -15,116 +15,55 @@
  */
 package org.stackwire.fca.generators;
 
-import java.util.ArrayList;
+import java.util.function.BiPredicate;
 
 import org.stackwire.fca.Concept;
 import org.stackwire.fca.Concept.Extent;
 import org.stackwire.fca.Concept.Intent;
 import org.stackwire.fca.ConceptGenerator;
+import org.stackwire.fca.ConceptSink;
 import org.stackwire.fca.Context;
+import org.stackwire.fca.relations.BinaryRelations;
 import org.stackwire.fca.tags.IndexTag;
+import org.stackwire.fca.utils.BitIndexSet;
 
 /**
  * Formal concept generator implemented with the in-close algorithm
- * 
+ *
+ * Runs an In-Close2 search with In-Close4 empty intersection skipping over
+ * packed bit sets. See {@link InCloseSearch}.
+ *
+ * @see ParallelInCloseConceptGenerator
  */
 public final class InCloseConceptGenerator implements ConceptGenerator {
 
-	private ArrayList<ArrayList<Integer>> A = new ArrayList<>();
-
-	private ArrayList<ArrayList<Integer>> B = new ArrayList<>();
-
-	private double threshold;
-
 	@Override
 	public Context generateConceptsFor(Context formalContext, double threshold) {
-		this.threshold = threshold;
-
-		Concept sup = Concept.newSupremum(formalContext.objectCount() - 1);
-		formalContext.addConcept(sup);
-
-		A.add(new ArrayList<>(sup.getExtent().getIndicies()));
-		B.add(new ArrayList<>());
-
-		inClose(formalContext, 0, 0);
-		for (int i = 0; i < A.size(); i++) {
-			if (!B.get(i).isEmpty()) {
-				Concept concept = new Concept.ConceptBuilder(new Extent(A.get(i)), new Intent(B.get(i)))
-						.conceptTag(new IndexTag(i)).build();
-				formalContext.addConcept(concept);
-			}
-		}
+		generateConceptsFor(formalContext, threshold, concept -> {
+			formalContext.addConcept(concept);
+			return true;
+		});
 		return formalContext;
 	}
 
 	/**
-	 * Generate formal concepts using the in-close algorithm
-	 * 
-	 * @param formalContext
-	 *            formal context
-	 * @param currentFormalConcept
-	 *            current formal concept
-	 * @param attributeColumnOffset
-	 *            start position of the column in the boolean matrix
+	 * Generates formal concepts in depth first order and passes them to the
+	 * sink without adding them to the context
 	 */
-	protected void inClose(Context formalContext, int r, int y) {
-		int rnew = r + 1;
-
-		for (int j = y; j <= formalContext.attributeCount() - 1; j++) {
-			A.add(rnew, new ArrayList<Integer>());
-			B.add(rnew, new ArrayList<Integer>());
-			for (int i : A.get(r)) {
-				if (formalContext.hasRelation(i, j, threshold) && !A.get(rnew).contains(i)) {
-					A.get(rnew).add(i);
-				}
-			}
-			if (!A.get(rnew).isEmpty()) {
-				if (A.get(rnew).size() == A.get(r).size()) {
-					if (!B.get(r).contains(j)) {
-						B.get(r).add(j);
-					}
-				} else if (isCanonical(formalContext, r, rnew, j - 1)) {
-					if (!B.get(rnew).containsAll(B.get(r))) {
-						B.get(rnew).addAll(B.get(r));
-					}
-					if (!B.get(rnew).contains(j)) {
-						B.get(rnew).add(j);
-					}
-
-					inClose(formalContext, rnew, j + 1);
-				}
-			}
-		}
-	}
-
-	protected boolean isCanonical(Context formalContext, int r, int rnew, int y) {
-		for (int k = B.get(r).size() - 1; k >= 0; k--) {
-			for (int j = y; j >= B.get(r).get(k) + 1; j--) {
-				int h;
-				for (h = 0; h <= A.get(rnew).size() - 1; h++) {
-					if (!formalContext.hasRelation(A.get(rnew).get(h), j, threshold)) {
-						break;
-					}
-				}
-				if (h == A.get(rnew).size()) {
-					return false;
-				}
-			}
-			y = B.get(r).get(k) - 1;
-		}
-
-		for (int j = y; j >= 0; j--) {
-			int h;
-			for (h = 0; h <= A.get(rnew).size() - 1; h++) {
-				if (!formalContext.hasRelation(A.get(rnew).get(h), j, threshold)) {
-					break;
-				}
-			}
-			if (h == A.get(rnew).size()) {
-				return false;
+	@Override
+	public void generateConceptsFor(Context formalContext, double threshold, ConceptSink sink) {
+		BinaryRelations relations = formalContext.getBinaryRelations(threshold);
+		int[] index = new int[1];
+		BiPredicate<BitIndexSet, BitIndexSet> emitter = (extent, intent) -> sink.accept(new Concept.ConceptBuilder(
+				new Extent(extent), new Intent(intent)).conceptTag(new IndexTag(index[0]++)).build());
+
+		InCloseSearch search = new InCloseSearch(relations, emitter);
+		if (search.search(new BitIndexSet(relations.objectCount()).addRange(0, relations.objectCount()),
+				new BitIndexSet(), new BitIndexSet(), 0)) {
+			BitIndexSet bottom = InCloseSearch.emptyBottom(relations);
+			if (bottom != null) {
+				emitter.test(bottom, new BitIndexSet().addRange(0, relations.attributeCount()));
 			}
 		}
-		return true;
 	}
-
 }
@@ -0,0 +1,280 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.generators;
+
+import java.util.Arrays;
+import java.util.function.BiPredicate;
+
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.utils.BitIndexSet;
+
+/**
+ * In-Close search over packed bit sets
+ *
+ * Follows In-Close2 (Andrews 2011): a child intent inherits the full intent of
+ * its parent, and children are closed only after the parent intent is
+ * complete. Attributes whose intersection with an extent is empty are passed
+ * down and skipped by all children, as in In-Close4. Extents and intents are
+ * held on a stack that is reused between concepts, and the canonicity test
+ * intersects whole rows a word at a time.
+ *
+ * A search and its stack serve one task at a time.
+ */
+final class InCloseSearch {
+
+	private final int attributeCount;
+
+	/**
+	 * Attribute that produced each child extent of the pool
+	 */
+	private int[] childAttributes;
+
+	/**
+	 * Receives the extent and intent of each concept and returns false to
+	 * stop the search. The sets are reused after the call returns.
+	 */
+	private final BiPredicate<BitIndexSet, BitIndexSet> emitter;
+
+	/**
+	 * Attributes that have an empty intersection with the extent at each depth
+	 */
+	private final BitIndexSet[] empties;
+
+	/**
+	 * Pool of extents, used as a stack. Entries at or above top are free.
+	 */
+	private BitIndexSet[] extents;
+
+	/**
+	 * Intent of the concept at each depth
+	 */
+	private final BitIndexSet[] intents;
+
+	private final int objectCount;
+
+	private final BinaryRelations relations;
+
+	private final BitIndexSet scratch;
+
+	private int top;
+
+	InCloseSearch(BinaryRelations relations, BiPredicate<BitIndexSet, BitIndexSet> emitter) {
+		this.relations = relations;
+		this.emitter = emitter;
+		this.objectCount = relations.objectCount();
+		this.attributeCount = relations.attributeCount();
+		this.intents = newSets(attributeCount + 2, attributeCount);
+		this.empties = newSets(attributeCount + 2, attributeCount);
+		this.extents = newSets(attributeCount + 1, objectCount);
+		this.childAttributes = new int[extents.length];
+		this.scratch = new BitIndexSet(attributeCount);
+	}
+
+	/**
+	 * Returns attribute that produced the child extent at the specified
+	 * position
+	 */
+	int childAttribute(int position) {
+		return childAttributes[position];
+	}
+
+	/**
+	 * Returns child extent at the specified position
+	 */
+	BitIndexSet childExtent(int position) {
+		return extents[position];
+	}
+
+	/**
+	 * Returns the extent of the bottom concept if it is empty, otherwise null.
+	 * An empty bottom extent is never reached by the search.
+	 *
+	 * @param relations
+	 *            binary relations
+	 * @return the empty extent of the bottom concept, or null
+	 */
+	static BitIndexSet emptyBottom(BinaryRelations relations) {
+		int objectCount = relations.objectCount();
+		if (objectCount == 0) {
+			return null;
+		}
+		BitIndexSet bottom = new BitIndexSet(objectCount).addRange(0, objectCount);
+		for (int j = 0; j < relations.attributeCount() && !bottom.isEmpty(); j++) {
+			relations.andColumn(j, bottom);
+		}
+		return bottom.isEmpty() ? bottom : null;
+	}
+
+	/**
+	 * Closes the intent at the specified depth from attribute y on and pushes
+	 * the canonical child extents onto the pool. Children are in positions
+	 * from the returned index up to top().
+	 *
+	 * @param extent
+	 *            extent of the concept
+	 * @param depth
+	 *            depth of the concept
+	 * @param y
+	 *            first attribute to test
+	 * @return position of the first child
+	 */
+	int expand(BitIndexSet extent, int depth, int y) {
+		BitIndexSet intent = intents[depth];
+		BitIndexSet empty = empties[depth];
+		int first = top;
+		for (int j = y; j < attributeCount; j++) {
+			if (intent.contains(j) || empty.contains(j)) {
+				continue;
+			}
+			BitIndexSet child = extent(top).copyFrom(extent);
+			relations.andColumn(j, child);
+			if (child.equals(extent)) {
+				intent.add(j);
+			} else if (child.isEmpty()) {
+				empty.add(j);
+			} else if (isCanonical(child, intent, empty, j)) {
+				childAttributes[top++] = j;
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * Returns the pooled extent at the specified position, growing the pool if
+	 * needed
+	 */
+	private BitIndexSet extent(int position) {
+		if (position == extents.length) {
+			int length = extents.length * 2;
+			extents = Arrays.copyOf(extents, length);
+			childAttributes = Arrays.copyOf(childAttributes, length);
+			for (int k = position; k < length; k++) {
+				extents[k] = new BitIndexSet(objectCount);
+			}
+		}
+		return extents[position];
+	}
+
+	/**
+	 * Returns the attributes known to be empty at the specified depth
+	 */
+	BitIndexSet empty(int depth) {
+		return empties[depth];
+	}
+
+	/**
+	 * Returns the intent at the specified depth
+	 */
+	BitIndexSet intent(int depth) {
+		return intents[depth];
+	}
+
+	/**
+	 * Returns true if no attribute before j that is outside of the intent
+	 * holds for every object of the child extent
+	 *
+	 * @param child
+	 *            non-empty child extent
+	 * @param intent
+	 *            intent of the parent, closed up to j
+	 * @param empty
+	 *            attributes known to have no objects in the child extent
+	 * @param j
+	 *            attribute that produced the child extent
+	 * @return true if the child extent has not been generated before
+	 */
+	private boolean isCanonical(BitIndexSet child, BitIndexSet intent, BitIndexSet empty, int j) {
+		scratch.clear().addRange(0, j).andNot(intent).andNot(empty);
+		for (int i = child.nextSetBit(0); i >= 0 && !scratch.isEmpty(); i = child.nextSetBit(i + 1)) {
+			relations.andRow(i, scratch);
+		}
+		return scratch.isEmpty();
+	}
+
+	private static BitIndexSet[] newSets(int count, int universe) {
+		BitIndexSet[] sets = new BitIndexSet[count];
+		for (int k = 0; k < count; k++) {
+			sets[k] = new BitIndexSet(universe);
+		}
+		return sets;
+	}
+
+	/**
+	 * Enumerates the concept with the specified extent and the intent and
+	 * empty attributes at the specified depth, then all of its canonical
+	 * descendants
+	 *
+	 * @param extent
+	 *            extent of the concept
+	 * @param depth
+	 *            depth of the concept
+	 * @param y
+	 *            first attribute to test
+	 * @return false if the emitter stopped the search, otherwise true
+	 */
+	boolean search(BitIndexSet extent, int depth, int y) {
+		int first = expand(extent, depth, y);
+		BitIndexSet intent = intents[depth];
+		boolean running = emitter.test(extent, intent);
+		for (int k = first; k < top && running; k++) {
+			int j = childAttributes[k];
+			intents[depth + 1].copyFrom(intent).add(j);
+			empties[depth + 1].copyFrom(empties[depth]);
+			running = search(extents[k], depth + 1, j + 1);
+		}
+		top = first;
+		return running;
+	}
+
+	/**
+	 * Starts a search from the specified extent, intent and empty attributes,
+	 * which are copied
+	 *
+	 * @param extent
+	 *            extent of the concept
+	 * @param intent
+	 *            intent of the concept, closed before attribute y
+	 * @param empty
+	 *            attributes known to have no objects in the extent
+	 * @param y
+	 *            first attribute to test
+	 * @return false if the emitter stopped the search, otherwise true
+	 */
+	boolean search(BitIndexSet extent, BitIndexSet intent, BitIndexSet empty, int y) {
+		intents[0].copyFrom(intent);
+		empties[0].copyFrom(empty);
+		BitIndexSet root = extent(top++).copyFrom(extent);
+		try {
+			return search(root, 0, y);
+		} finally {
+			top--;
+		}
+	}
+
+	/**
+	 * Releases the child extents from the specified position on
+	 */
+	void release(int position) {
+		top = position;
+	}
+
+	/**
+	 * Returns the position above the last child extent
+	 */
+	int top() {
+		return top;
+	}
+}
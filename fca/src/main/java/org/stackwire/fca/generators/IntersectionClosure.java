@@ -0,0 +1,132 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.generators;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+import org.stackwire.fca.functions.Derivation;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.utils.BitIndexSet;
+
+/**
+ * Closure system generated by intersecting the columns or the rows of binary
+ * relations
+ *
+ * Every extent is the set of all objects intersected with some columns, and
+ * every intent is the set of all attributes intersected with some rows. Each
+ * closed set is taken from a worklist once and intersected with every
+ * generator, so only sets that were newly created are intersected. New sets
+ * are found with a hash set of the sets seen so far. Generators that contain
+ * the set are skipped, since the intersection is the set itself.
+ *
+ * Not thread safe.
+ */
+final class IntersectionClosure {
+
+	/**
+	 * Receives the extent and intent of each concept and returns false to
+	 * stop. The sets are reused after the call returns.
+	 */
+	private final BiPredicate<BitIndexSet, BitIndexSet> emitter;
+
+	/**
+	 * True if the generators are columns and the closed sets are extents,
+	 * false if the generators are rows and the closed sets are intents
+	 */
+	private final boolean extents;
+
+	private final Derivation derivation;
+
+	private final BitIndexSet[] generators;
+
+	private final int size;
+
+	/**
+	 * Constructor
+	 *
+	 * @param relations
+	 *            binary relations
+	 * @param extents
+	 *            true to intersect columns into extents, false to intersect
+	 *            rows into intents
+	 * @param emitter
+	 *            receives the extent and intent of each concept
+	 */
+	IntersectionClosure(BinaryRelations relations, boolean extents, BiPredicate<BitIndexSet, BitIndexSet> emitter) {
+		this.emitter = emitter;
+		this.extents = extents;
+		this.derivation = new Derivation(relations);
+		this.size = extents ? relations.objectCount() : relations.attributeCount();
+		this.generators = new BitIndexSet[extents ? relations.attributeCount() : relations.objectCount()];
+		for (int k = 0; k < generators.length; k++) {
+			generators[k] = new BitIndexSet(size).addRange(0, size);
+			if (extents) {
+				relations.andColumn(k, generators[k]);
+			} else {
+				relations.andRow(k, generators[k]);
+			}
+		}
+	}
+
+	/**
+	 * Passes each concept to the emitter, starting with the concept whose
+	 * closed set holds every index
+	 *
+	 * @return false if the emitter stopped the search, otherwise true
+	 */
+	boolean close() {
+		Set<BitIndexSet> seen = new HashSet<>();
+		Deque<BitIndexSet> worklist = new ArrayDeque<>();
+		BitIndexSet derived = new BitIndexSet(extents ? derivation.attributeCount() : derivation.objectCount());
+		BitIndexSet all = new BitIndexSet(size).addRange(0, size);
+		seen.add(all);
+		worklist.add(all);
+		if (!emit(all, derived)) {
+			return false;
+		}
+
+		BitIndexSet scratch = new BitIndexSet(size);
+		while (!worklist.isEmpty()) {
+			BitIndexSet set = worklist.poll();
+			for (BitIndexSet generator : generators) {
+				if (set.isSubsetOf(generator)) {
+					continue;
+				}
+				scratch.copyFrom(set).and(generator);
+				if (!seen.contains(scratch)) {
+					BitIndexSet created = new BitIndexSet(scratch);
+					seen.add(created);
+					worklist.add(created);
+					if (!emit(created, derived)) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	private boolean emit(BitIndexSet set, BitIndexSet derived) {
+		if (extents) {
+			return emitter.test(set, derivation.attributesCommonTo(set, derived));
+		}
+		return emitter.test(derivation.objectsCommonTo(set, derived), set);
+	}
+}
@@ -15,17 +15,23 @@
  */
 package org.stackwire.fca.generators;
 
-import java.util.Collection;
-import java.util.Set;
-import java.util.function.Function;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 import org.stackwire.fca.Concept;
 import org.stackwire.fca.Concept.Extent;
 import org.stackwire.fca.Concept.Intent;
 import org.stackwire.fca.ConceptGenerator;
+import org.stackwire.fca.ConceptSink;
 import org.stackwire.fca.ConceptType;
 import org.stackwire.fca.Context;
-import org.stackwire.fca.functions.AttributesCommonToObjectsFunction;
+import org.stackwire.fca.functions.Derivation;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.utils.BitIndexSet;
 
 /**
  * Naive implementation as defined in Concept Data Analysis (pg 30)
@@ -33,20 +39,222 @@ import org.stackwire.fca.functions.AttributesCommonToObjectsFunction;
  * Create power set P(G). For each element x of P(G), calculate A' as its
  * intent. For each element x of P(G), if A''= B' = A, add as a formal concept
  * 
+ * Subsets are visited in Gray code order, so each subset differs from the
+ * previous one by a single object. The count of objects in the subset that
+ * have each attribute is kept, and the intent is updated from the row of the
+ * object that enters or leaves. Subsets that are not closed are added as
+ * semiconcepts. The power set is split by the objects with the highest
+ * indicies: each combination of them is walked as a separate task on a
+ * fork/join pool.
  */
 public class NaiveConceptGenerator implements ConceptGenerator {
 
+	/**
+	 * Gray code walk over the subsets of the low objects, with the chosen
+	 * high objects always in the subset
+	 */
+	private static final class PowerSetWalk {
+
+		private final List<Concept> buffer = new ArrayList<>();
+
+		private final BitIndexSet closure;
+
+		/**
+		 * Count of objects of the subset that have each attribute
+		 */
+		private final int[] counts;
+
+		private final Derivation derivation;
+
+		private final BitIndexSet extent;
+
+		private final Predicate<List<Concept>> flush;
+
+		private final BitIndexSet intent;
+
+		private final int lowCount;
+
+		private final BitIndexSet[] rows;
+
+		private final boolean semiconcepts;
+
+		private int size;
+
+		private final AtomicBoolean stopped;
+
+		private PowerSetWalk(Derivation derivation, BitIndexSet[] rows, int lowCount, int high, boolean semiconcepts,
+				Predicate<List<Concept>> flush, AtomicBoolean stopped) {
+			this.derivation = derivation;
+			this.rows = rows;
+			this.lowCount = lowCount;
+			this.semiconcepts = semiconcepts;
+			this.flush = flush;
+			this.stopped = stopped;
+			this.counts = new int[derivation.attributeCount()];
+			this.extent = new BitIndexSet(derivation.objectCount());
+			this.closure = new BitIndexSet(derivation.objectCount());
+			this.intent = new BitIndexSet(derivation.attributeCount()).addRange(0, derivation.attributeCount());
+			for (int b = 0; b < 31; b++) {
+				if ((high & (1 << b)) != 0) {
+					enter(lowCount + b);
+				}
+			}
+		}
+
+		private void emit() {
+			boolean closed = derivation.objectsCommonTo(intent, closure).equals(extent);
+			if (closed || semiconcepts) {
+				buffer.add(new Concept.ConceptBuilder(new Extent(extent), new Intent(intent))
+						.conceptType(closed ? ConceptType.FORMAL_CONCEPT : ConceptType.SEMICONCEPT).build());
+				if (buffer.size() >= BATCH_SIZE) {
+					flush();
+				}
+			}
+		}
+
+		/**
+		 * Adds the specified object to the subset. Only attributes of its row
+		 * stay in the intent.
+		 */
+		private void enter(int object) {
+			BitIndexSet row = rows[object];
+			extent.add(object);
+			size++;
+			for (int j = row.nextSetBit(0); j >= 0; j = row.nextSetBit(j + 1)) {
+				counts[j]++;
+			}
+			intent.and(row);
+		}
+
+		private void flush() {
+			if (!buffer.isEmpty()) {
+				if (!flush.test(buffer)) {
+					stopped.set(true);
+				}
+				buffer.clear();
+			}
+		}
+
+		/**
+		 * Removes the specified object from the subset. Attributes outside of
+		 * its row join the intent once every remaining object has them.
+		 */
+		private void leave(int object) {
+			BitIndexSet row = rows[object];
+			extent.remove(object);
+			size--;
+			for (int j = row.nextSetBit(0); j >= 0; j = row.nextSetBit(j + 1)) {
+				counts[j]--;
+			}
+			for (int j = 0; j < counts.length; j++) {
+				if (counts[j] == size && !row.contains(j)) {
+					intent.add(j);
+				}
+			}
+		}
+
+		private void walk() {
+			emit();
+			for (long k = 1; k < 1L << lowCount && !stopped.get(); k++) {
+				int object = Long.numberOfTrailingZeros(k);
+				if (extent.contains(object)) {
+					leave(object);
+				} else {
+					enter(object);
+				}
+				emit();
+			}
+			flush();
+		}
+	}
+
+	private static final int BATCH_SIZE = 1024;
+
+	/**
+	 * Largest count of objects whose power set can be indexed by a long
+	 */
+	private static final int MAX_OBJECTS = 62;
+
+	private final ForkJoinPool pool;
+
+	private final int splitBits;
+
+	/**
+	 * Constructor using the common pool and splitting on 6 objects
+	 */
+	public NaiveConceptGenerator() {
+		this(ForkJoinPool.commonPool(), 6);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param pool
+	 *            pool to run the tasks on
+	 * @param splitBits
+	 *            count of objects with the highest indicies whose
+	 *            combinations are walked as separate tasks. At 0, the power
+	 *            set is walked as a single task.
+	 */
+	public NaiveConceptGenerator(ForkJoinPool pool, int splitBits) {
+		if (pool == null) {
+			throw new IllegalArgumentException("pool is null");
+		}
+		if (splitBits < 0 || splitBits > 30) {
+			throw new IllegalArgumentException("Split bits out of range: " + splitBits);
+		}
+		this.pool = pool;
+		this.splitBits = splitBits;
+	}
+
 	@Override
 	public Context generateConceptsFor(Context formalContext, double threshold) {
-		Set<Set<Integer>> powerSet = formalContext.powerSetOfObjects();
-		Function<Collection<Integer>, Set<Integer>> commonAttributes = new AttributesCommonToObjectsFunction(
-				formalContext.getRelations(), threshold);
-		for (Set<Integer> objects : powerSet) {
-			Extent extent = new Extent(objects);
-			Intent intent = new Intent(commonAttributes.apply(objects));
-			ConceptType conceptType = ConceptType.getConceptType(formalContext, extent, intent, threshold);
-			formalContext.addConcept(new Concept.ConceptBuilder(extent, intent).conceptType(conceptType).build());
-		}
+		walk(formalContext.getBinaryRelations(threshold), true, batch -> {
+			synchronized (formalContext) {
+				batch.forEach(formalContext::addConcept);
+			}
+			return true;
+		});
 		return formalContext;
 	}
+
+	/**
+	 * Passes only the formal concepts to the sink, without adding them to the
+	 * context. The order depends on scheduling.
+	 */
+	@Override
+	public void generateConceptsFor(Context formalContext, double threshold, ConceptSink sink) {
+		AtomicBoolean accepting = new AtomicBoolean(true);
+		walk(formalContext.getBinaryRelations(threshold), false, batch -> {
+			synchronized (sink) {
+				for (int k = 0; k < batch.size() && accepting.get(); k++) {
+					accepting.set(sink.accept(batch.get(k)));
+				}
+				return accepting.get();
+			}
+		});
+	}
+
+	/**
+	 * Walks the power set of the objects in parallel, passing batches of
+	 * concepts to the specified flush until it returns false
+	 */
+	private void walk(BinaryRelations relations, boolean semiconcepts, Predicate<List<Concept>> flush) {
+		int objectCount = relations.objectCount();
+		if (objectCount > MAX_OBJECTS) {
+			throw new IllegalArgumentException("Too many objects for a power set: " + objectCount);
+		}
+		int attributeCount = relations.attributeCount();
+		BitIndexSet[] rows = new BitIndexSet[objectCount];
+		for (int i = 0; i < objectCount; i++) {
+			rows[i] = new BitIndexSet(attributeCount).addRange(0, attributeCount);
+			relations.andRow(i, rows[i]);
+		}
+		int highCount = Math.min(splitBits, objectCount);
+		AtomicBoolean stopped = new AtomicBoolean();
+		pool.submit(() -> IntStream.range(0, 1 << highCount).parallel()
+				.forEach(high -> new PowerSetWalk(new Derivation(relations), rows, objectCount - highCount, high,
+						semiconcepts, flush, stopped).walk()))
+				.join();
+	}
 }
@@ -0,0 +1,130 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.generators;
+
+import org.stackwire.fca.functions.Derivation;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.utils.BitIndexSet;
+
+/**
+ * Cursor over the formal concepts of binary relations in the lectic order of
+ * their intents, as computed by Ganter's NextClosure algorithm. Attribute 0 is
+ * the most significant. Only the current concept and a few buffers are held,
+ * so working memory is proportional to the count of objects and attributes.
+ *
+ * Instances are not thread safe.
+ */
+public final class NextClosure {
+
+	private final BitIndexSet candidate;
+
+	private final BitIndexSet candidateExtent;
+
+	private final Derivation derivation;
+
+	private boolean done;
+
+	private final BitIndexSet extent;
+
+	private final BitIndexSet intent;
+
+	private final BitIndexSet scratch;
+
+	private boolean started;
+
+	public NextClosure(BinaryRelations relations) {
+		this.derivation = new Derivation(relations);
+		this.intent = new BitIndexSet(relations.attributeCount());
+		this.candidate = new BitIndexSet(relations.attributeCount());
+		this.scratch = new BitIndexSet(relations.attributeCount());
+		this.extent = new BitIndexSet(relations.objectCount());
+		this.candidateExtent = new BitIndexSet(relations.objectCount());
+	}
+
+	/**
+	 * Returns extent of the current concept. The set is reused by the next
+	 * call to next().
+	 *
+	 * @return extent of the current concept
+	 */
+	public BitIndexSet extent() {
+		return extent;
+	}
+
+	/**
+	 * Returns intent of the current concept. The set is reused by the next
+	 * call to next().
+	 *
+	 * @return intent of the current concept
+	 */
+	public BitIndexSet intent() {
+		return intent;
+	}
+
+	/**
+	 * Moves to the concept with the specified intent, so that the next call
+	 * to next() advances to the concept that follows it in lectic order
+	 *
+	 * @param intent
+	 *            intent of a concept
+	 * @throws IllegalArgumentException
+	 *             if the intent is not closed in the relations
+	 */
+	public void seek(BitIndexSet intent) {
+		candidate.copyFrom(intent);
+		derivation.closeAttributes(candidate, candidateExtent, candidate);
+		if (!candidate.equals(intent)) {
+			throw new IllegalArgumentException("Intent is not closed");
+		}
+		this.intent.copyFrom(intent);
+		this.extent.copyFrom(candidateExtent);
+		this.started = true;
+		this.done = false;
+	}
+
+	/**
+	 * Advances to the next concept in lectic order. The first call moves to
+	 * the concept with the smallest intent.
+	 *
+	 * @return true if there is a next concept, otherwise false
+	 */
+	public boolean next() {
+		if (done) {
+			return false;
+		}
+		if (!started) {
+			started = true;
+			derivation.closeAttributes(intent, extent, intent);
+			return true;
+		}
+		for (int i = derivation.attributeCount() - 1; i >= 0; i--) {
+			if (intent.contains(i)) {
+				intent.remove(i);
+				continue;
+			}
+			candidate.copyFrom(intent).add(i);
+			derivation.closeAttributes(candidate, candidateExtent, candidate);
+			scratch.copyFrom(candidate).andNot(intent);
+			if (scratch.nextSetBit(0) >= i) {
+				intent.copyFrom(candidate);
+				extent.copyFrom(candidateExtent);
+				return true;
+			}
+		}
+		done = true;
+		return false;
+	}
+}
@@ -0,0 +1,182 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.generators;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.Concept.Extent;
+import org.stackwire.fca.Concept.Intent;
+import org.stackwire.fca.ConceptGenerator;
+import org.stackwire.fca.ConceptSink;
+import org.stackwire.fca.Context;
+import org.stackwire.fca.tags.IndexTag;
+
+/**
+ * Formal concept generator implemented with Ganter's NextClosure algorithm
+ *
+ * Concepts are added in the lectic order of their intents and tagged with
+ * their position in that order. The generator holds no concepts of its own,
+ * so concepts passed to a sink or read from a stream are not kept.
+ *
+ * Since the order is fixed, an enumeration can write a {@link Checkpoint}
+ * every so many concepts or milliseconds, and a later enumeration of the
+ * same context can resume from it.
+ */
+public final class NextClosureConceptGenerator implements ConceptGenerator {
+
+	/**
+	 * Cursor positioned at the resume point that reports checkpoints as
+	 * concepts are delivered
+	 */
+	private final class Enumeration {
+
+		private final NextClosure cursor;
+
+		private long lastCheckpoint = System.nanoTime();
+
+		private long position;
+
+		private Enumeration(Context formalContext, double threshold) {
+			this.cursor = new NextClosure(formalContext.getBinaryRelations(threshold));
+			if (resumeFrom != null) {
+				cursor.seek(resumeFrom.getIntent());
+				this.position = resumeFrom.getPosition();
+			}
+		}
+
+		/**
+		 * Called once the current concept has been delivered
+		 */
+		private void delivered() {
+			position++;
+			if (listener == null) {
+				return;
+			}
+			long now = System.nanoTime();
+			if ((everyConcepts > 0 && position % everyConcepts == 0)
+					|| (everyMillis > 0 && now - lastCheckpoint >= everyMillis * 1_000_000L)) {
+				lastCheckpoint = now;
+				listener.accept(new Checkpoint(position, cursor.intent()));
+			}
+		}
+
+		private Concept next() {
+			if (!cursor.next()) {
+				return null;
+			}
+			return new Concept.ConceptBuilder(new Extent(cursor.extent()), new Intent(cursor.intent()))
+					.conceptTag(new IndexTag((int) position)).build();
+		}
+	}
+
+	private long everyConcepts;
+
+	private long everyMillis;
+
+	private Consumer<Checkpoint> listener;
+
+	private Checkpoint resumeFrom;
+
+	/**
+	 * Reports a checkpoint to the specified listener after every count
+	 * concepts and whenever the specified milliseconds have passed since the
+	 * last checkpoint. A value of 0 or less disables that trigger.
+	 *
+	 * @param everyConcepts
+	 *            count of concepts between checkpoints
+	 * @param everyMillis
+	 *            milliseconds between checkpoints
+	 * @param listener
+	 *            receives the checkpoints, or null for none
+	 * @return this generator
+	 */
+	public NextClosureConceptGenerator checkpoint(long everyConcepts, long everyMillis,
+			Consumer<Checkpoint> listener) {
+		this.everyConcepts = everyConcepts;
+		this.everyMillis = everyMillis;
+		this.listener = listener;
+		return this;
+	}
+
+	@Override
+	public Context generateConceptsFor(Context formalContext, double threshold) {
+		generateConceptsFor(formalContext, threshold, concept -> {
+			formalContext.addConcept(concept);
+			return true;
+		});
+		return formalContext;
+	}
+
+	/**
+	 * Generates formal concepts in lectic order and passes them to the sink
+	 * without adding them to the context
+	 */
+	@Override
+	public void generateConceptsFor(Context formalContext, double threshold, ConceptSink sink) {
+		Enumeration enumeration = new Enumeration(formalContext, threshold);
+		for (Concept concept = enumeration.next(); concept != null; concept = enumeration.next()) {
+			if (!sink.accept(concept)) {
+				return;
+			}
+			enumeration.delivered();
+		}
+	}
+
+	/**
+	 * Starts the next enumerations after the position of the specified
+	 * checkpoint, which must come from an enumeration of the same context and
+	 * threshold
+	 *
+	 * @param checkpoint
+	 *            checkpoint to resume from, or null to start from the
+	 *            beginning
+	 * @return this generator
+	 */
+	public NextClosureConceptGenerator resumeFrom(Checkpoint checkpoint) {
+		this.resumeFrom = checkpoint;
+		return this;
+	}
+
+	/**
+	 * Returns stream of the formal concepts in lectic order. Concepts are
+	 * computed on the calling thread as the stream is read, so no concepts
+	 * are buffered.
+	 */
+	@Override
+	public Stream<Concept> stream(Context formalContext, double threshold) {
+		Enumeration enumeration = new Enumeration(formalContext, threshold);
+		Spliterator<Concept> spliterator = new Spliterators.AbstractSpliterator<Concept>(Long.MAX_VALUE,
+				Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL) {
+
+			@Override
+			public boolean tryAdvance(Consumer<? super Concept> action) {
+				Concept concept = enumeration.next();
+				if (concept == null) {
+					return false;
+				}
+				action.accept(concept);
+				enumeration.delivered();
+				return true;
+			}
+		};
+		return StreamSupport.stream(spliterator, false);
+	}
+}
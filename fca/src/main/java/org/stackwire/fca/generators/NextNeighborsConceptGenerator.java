@@ -15,15 +15,91 @@
  */
 package org.stackwire.fca.generators;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.Concept.Extent;
+import org.stackwire.fca.Concept.Intent;
 import org.stackwire.fca.ConceptGenerator;
+import org.stackwire.fca.ConceptLattice;
 import org.stackwire.fca.Context;
+import org.stackwire.fca.functions.Derivation;
+import org.stackwire.fca.tags.IndexTag;
+import org.stackwire.fca.utils.BitIndexSet;
 
+/**
+ * Formal concept generator implemented with Lindig's next neighbors algorithm
+ * (Fast Concept Analysis, 2000)
+ *
+ * Starts from the bottom concept and computes the upper neighbors of each
+ * concept, so the cover relation is found along with the concepts. Concepts
+ * are looked up by extent in a hash table. The lattice is set on the context
+ * and each concept is tagged with its position in the lattice.
+ */
 public class NextNeighborsConceptGenerator implements ConceptGenerator {
 
 	@Override
 	public Context generateConceptsFor(Context formalContext, double threshold) {
+		Derivation derivation = new Derivation(formalContext.getBinaryRelations(threshold));
+		int objectCount = derivation.objectCount();
+
+		List<BitIndexSet> extents = new ArrayList<>();
+		List<BitIndexSet> intents = new ArrayList<>();
+		List<int[]> upperCovers = new ArrayList<>();
+		Map<BitIndexSet, Integer> index = new HashMap<>();
+
+		BitIndexSet bottomIntent = new BitIndexSet(derivation.attributeCount());
+		BitIndexSet bottomExtent = derivation.closeObjects(new BitIndexSet(objectCount), bottomIntent,
+				new BitIndexSet(objectCount));
+		extents.add(bottomExtent);
+		intents.add(bottomIntent);
+		index.put(bottomExtent, 0);
+
+		BitIndexSet candidates = new BitIndexSet(objectCount);
+		BitIndexSet minimal = new BitIndexSet(objectCount);
+		BitIndexSet difference = new BitIndexSet(objectCount);
+		int[] neighbors = new int[Math.max(1, objectCount)];
+		for (int c = 0; c < extents.size(); c++) {
+			BitIndexSet extent = extents.get(c);
+			BitIndexSet intent = intents.get(c);
+			candidates.clear().addRange(0, objectCount).andNot(extent);
+			minimal.copyFrom(candidates);
+			int count = 0;
+			for (int g = candidates.nextSetBit(0); g >= 0; g = candidates.nextSetBit(g + 1)) {
+				BitIndexSet neighborIntent = new BitIndexSet(intent);
+				derivation.relations().andRow(g, neighborIntent);
+				BitIndexSet neighborExtent = derivation.objectsCommonTo(neighborIntent, new BitIndexSet(objectCount));
+
+				difference.copyFrom(neighborExtent).andNot(extent).remove(g);
+				if (!difference.intersects(minimal)) {
+					Integer neighbor = index.get(neighborExtent);
+					if (neighbor == null) {
+						neighbor = extents.size();
+						extents.add(neighborExtent);
+						intents.add(neighborIntent);
+						index.put(neighborExtent, neighbor);
+					}
+					neighbors[count++] = neighbor;
+				} else {
+					minimal.remove(g);
+				}
+			}
+			upperCovers.add(Arrays.copyOf(neighbors, count));
+		}
 
-		return null;
+		List<Concept> concepts = new ArrayList<>(extents.size());
+		for (int c = 0; c < extents.size(); c++) {
+			Concept concept = new Concept.ConceptBuilder(new Extent(extents.get(c)), new Intent(intents.get(c)))
+					.conceptTag(new IndexTag(c)).build();
+			concepts.add(concept);
+			formalContext.addConcept(concept);
+		}
+		formalContext.setConceptLattice(new ConceptLattice(concepts, upperCovers.toArray(new int[0][])));
+		return formalContext;
 	}
 
 }
@@ -0,0 +1,120 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.generators;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.stackwire.fca.ConceptGenerator;
+import org.stackwire.fca.Context;
+import org.stackwire.fca.relations.BinaryRelations;
+
+/**
+ * Formal concept generator that runs Fast Close-by-One on a fork/join pool
+ * (PFCbO)
+ *
+ * Each node of the search tree above the split depth is a separate task.
+ * Below the split depth each task searches its subtree sequentially. Concepts
+ * are buffered per task and added to the context in batches under the lock
+ * of the context. Index tags are unique but their order depends on
+ * scheduling.
+ *
+ * @see FastCloseByOneConceptGenerator
+ */
+public final class ParallelFastCloseByOneConceptGenerator implements ConceptGenerator {
+
+	/**
+	 * Enumerates the concept of a node and its descendants
+	 */
+	private static final class SearchTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int depth;
+
+		private final BatchedGeneration<CloseByOneSearch> generation;
+
+		private final CloseByOneSearch.Node node;
+
+		private final int splitDepth;
+
+		private SearchTask(BatchedGeneration<CloseByOneSearch> generation, CloseByOneSearch.Node node, int depth,
+				int splitDepth) {
+			this.generation = generation;
+			this.node = node;
+			this.depth = depth;
+			this.splitDepth = splitDepth;
+		}
+
+		@Override
+		protected void compute() {
+			BatchedGeneration<CloseByOneSearch>.Worker worker = generation.worker();
+			if (depth >= splitDepth) {
+				worker.search.search(node);
+				worker.flush();
+				return;
+			}
+			List<SearchTask> children = new ArrayList<>();
+			for (CloseByOneSearch.Node child : worker.search.expand(node)) {
+				children.add(new SearchTask(generation, child, depth + 1, splitDepth));
+			}
+			worker.flush();
+			invokeAll(children);
+		}
+	}
+
+	private final ForkJoinPool pool;
+
+	private final int splitDepth;
+
+	/**
+	 * Constructor using the common pool and a split depth of 2
+	 */
+	public ParallelFastCloseByOneConceptGenerator() {
+		this(ForkJoinPool.commonPool(), 2);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param pool
+	 *            pool to run the tasks on
+	 * @param splitDepth
+	 *            depth of the search tree up to which each child is a
+	 *            separate task. At 0, the search runs as a single task.
+	 */
+	public ParallelFastCloseByOneConceptGenerator(ForkJoinPool pool, int splitDepth) {
+		if (pool == null) {
+			throw new IllegalArgumentException("pool is null");
+		}
+		if (splitDepth < 0) {
+			throw new IllegalArgumentException("Negative split depth");
+		}
+		this.pool = pool;
+		this.splitDepth = splitDepth;
+	}
+
+	@Override
+	public Context generateConceptsFor(Context formalContext, double threshold) {
+		BinaryRelations relations = formalContext.getBinaryRelations(threshold);
+		BatchedGeneration<CloseByOneSearch> generation = new BatchedGeneration<>(formalContext, relations,
+				CloseByOneSearch::new);
+		pool.invoke(new SearchTask(generation, CloseByOneSearch.root(relations), 0, splitDepth));
+		return formalContext;
+	}
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.generators;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.stackwire.fca.ConceptGenerator;
+import org.stackwire.fca.Context;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.utils.BitIndexSet;
+
+/**
+ * Formal concept generator that runs the in-close algorithm on a fork/join
+ * pool
+ *
+ * Concepts above the split depth are expanded as separate tasks, one per
+ * canonical child. Below the split depth each task searches its subtree
+ * sequentially with a search stack of its own. Concepts are buffered per task
+ * and added to the context in batches under the lock of the context. Index
+ * tags are unique but their order depends on scheduling.
+ *
+ * @see InCloseConceptGenerator
+ */
+public final class ParallelInCloseConceptGenerator implements ConceptGenerator {
+
+	/**
+	 * Enumerates the concept with the specified extent and its descendants
+	 */
+	private static final class InCloseTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int depth;
+
+		private final BitIndexSet empty;
+
+		private final BitIndexSet extent;
+
+		private final BatchedGeneration<InCloseSearch> generation;
+
+		private final BitIndexSet intent;
+
+		private final int splitDepth;
+
+		private final int y;
+
+		private InCloseTask(BatchedGeneration<InCloseSearch> generation, BitIndexSet extent, BitIndexSet intent,
+				BitIndexSet empty, int depth, int y, int splitDepth) {
+			this.generation = generation;
+			this.extent = extent;
+			this.intent = intent;
+			this.empty = empty;
+			this.depth = depth;
+			this.y = y;
+			this.splitDepth = splitDepth;
+		}
+
+		@Override
+		protected void compute() {
+			BatchedGeneration<InCloseSearch>.Worker worker = generation.worker();
+			InCloseSearch search = worker.search;
+			if (depth >= splitDepth) {
+				search.search(extent, intent, empty, y);
+				worker.flush();
+				return;
+			}
+
+			search.intent(0).copyFrom(intent);
+			search.empty(0).copyFrom(empty);
+			int first = search.expand(extent, 0, y);
+			List<InCloseTask> children = new ArrayList<>(search.top() - first);
+			for (int k = first; k < search.top(); k++) {
+				int j = search.childAttribute(k);
+				children.add(new InCloseTask(generation, new BitIndexSet(search.childExtent(k)),
+						new BitIndexSet(search.intent(0)).addRange(j, j + 1), new BitIndexSet(search.empty(0)),
+						depth + 1, j + 1, splitDepth));
+			}
+			search.release(first);
+			worker.emit(extent, search.intent(0));
+			worker.flush();
+			invokeAll(children);
+		}
+	}
+
+	private final ForkJoinPool pool;
+
+	private final int splitDepth;
+
+	/**
+	 * Constructor using the common pool and a split depth of 2
+	 */
+	public ParallelInCloseConceptGenerator() {
+		this(ForkJoinPool.commonPool(), 2);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param pool
+	 *            pool to run the tasks on
+	 * @param splitDepth
+	 *            depth of the search tree up to which each child is a
+	 *            separate task. At 0, the search runs as a single task.
+	 */
+	public ParallelInCloseConceptGenerator(ForkJoinPool pool, int splitDepth) {
+		if (pool == null) {
+			throw new IllegalArgumentException("pool is null");
+		}
+		if (splitDepth < 0) {
+			throw new IllegalArgumentException("Negative split depth");
+		}
+		this.pool = pool;
+		this.splitDepth = splitDepth;
+	}
+
+	@Override
+	public Context generateConceptsFor(Context formalContext, double threshold) {
+		BinaryRelations relations = formalContext.getBinaryRelations(threshold);
+		BatchedGeneration<InCloseSearch> generation = new BatchedGeneration<>(formalContext, relations,
+				InCloseSearch::new);
+		int objectCount = relations.objectCount();
+		pool.invoke(new InCloseTask(generation, new BitIndexSet(objectCount).addRange(0, objectCount),
+				new BitIndexSet(), new BitIndexSet(), 0, 0, splitDepth));
+
+		BitIndexSet bottom = InCloseSearch.emptyBottom(relations);
+		if (bottom != null) {
+			formalContext.addConcept(
+					generation.concept(bottom, new BitIndexSet().addRange(0, relations.attributeCount())));
+		}
+		return formalContext;
+	}
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.generators;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.Concept.Extent;
+import org.stackwire.fca.Concept.Intent;
+import org.stackwire.fca.ConceptGenerator;
+import org.stackwire.fca.ConceptSink;
+import org.stackwire.fca.ConceptType;
+import org.stackwire.fca.Context;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.utils.BitIndexSet;
+
+/**
+ * Generates the preconcepts of a context that are neither formal concepts
+ * nor semiconcepts: the pairs (A, B) with A a subset of B', so that every
+ * object of A has every attribute of B, where A' is not B and B' is not A.
+ *
+ * Each such pair belongs to the formal concept (C, D) generated by A: A'' = C
+ * and B is a proper subset of D = A'. The formal concepts are found with the
+ * Fast Close-by-One search. For each, the sets of objects that generate it
+ * are enumerated with {@link DerivedSubsets}, then every proper subset of
+ * its intent is paired with each of them, skipping the one set of objects
+ * that is the derivation of the subset.
+ *
+ * @see SemiconceptGenerator
+ */
+public final class PreconceptGenerator implements ConceptGenerator {
+
+	/**
+	 * Subsets of the intent of one formal concept, with the derivation of
+	 * each subset at each depth
+	 */
+	private static final class IntentSubsets {
+
+		private final BinaryRelations relations;
+
+		private final BitIndexSet[] derivations;
+
+		private int[] elements;
+
+		private List<BitIndexSet> generators;
+
+		private ConceptSink sink;
+
+		private final BitIndexSet subset;
+
+		private IntentSubsets(BinaryRelations relations) {
+			this.relations = relations;
+			this.subset = new BitIndexSet(relations.attributeCount());
+			this.derivations = new BitIndexSet[relations.attributeCount() + 1];
+			for (int k = 0; k < derivations.length; k++) {
+				derivations[k] = new BitIndexSet(relations.objectCount());
+			}
+		}
+
+		/**
+		 * Pairs each proper subset of the specified intent with each of the
+		 * specified generators, until the sink returns false
+		 */
+		private boolean pair(BitIndexSet intent, List<BitIndexSet> generators, ConceptSink sink) {
+			this.generators = generators;
+			this.sink = sink;
+			this.elements = intent.toArray();
+			subset.clear();
+			derivations[0].clear().addRange(0, relations.objectCount());
+			return search(0, 0);
+		}
+
+		/**
+		 * Pairs the subset at the specified depth, then extends it by the
+		 * elements from the specified position on while it stays a proper
+		 * subset
+		 */
+		private boolean search(int depth, int position) {
+			BitIndexSet derivation = derivations[depth];
+			for (BitIndexSet generator : generators) {
+				if (!generator.equals(derivation) && !sink.accept(new Concept.ConceptBuilder(new Extent(generator),
+						new Intent(subset)).conceptType(ConceptType.PRECONCEPT).build())) {
+					return false;
+				}
+			}
+			if (depth + 1 == elements.length) {
+				return true;
+			}
+			for (int k = position; k < elements.length; k++) {
+				relations.andColumn(elements[k], derivations[depth + 1].copyFrom(derivation));
+				subset.add(elements[k]);
+				boolean more = search(depth + 1, k + 1);
+				subset.remove(elements[k]);
+				if (!more) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	@Override
+	public Context generateConceptsFor(Context formalContext, double threshold) {
+		generateConceptsFor(formalContext, threshold, concept -> {
+			formalContext.addConcept(concept);
+			return true;
+		});
+		return formalContext;
+	}
+
+	/**
+	 * Passes the preconcepts to the sink as they are found, without adding
+	 * them to the context
+	 */
+	@Override
+	public void generateConceptsFor(Context formalContext, double threshold, ConceptSink sink) {
+		BinaryRelations relations = formalContext.getBinaryRelations(threshold);
+		DerivedSubsets objects = DerivedSubsets.ofObjects(relations);
+		IntentSubsets intents = new IntentSubsets(relations);
+		List<BitIndexSet> generators = new ArrayList<>();
+		CloseByOneSearch search = new CloseByOneSearch(relations, (extent, intent) -> {
+			if (intent.isEmpty()) {
+				return true;
+			}
+			generators.clear();
+			objects.forEach(extent, intent, subset -> generators.add(new BitIndexSet(subset)));
+			return intents.pair(intent, generators, sink);
+		});
+		search.search(CloseByOneSearch.root(relations));
+	}
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.generators;
+
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.Concept.Extent;
+import org.stackwire.fca.Concept.Intent;
+import org.stackwire.fca.ConceptGenerator;
+import org.stackwire.fca.ConceptSink;
+import org.stackwire.fca.ConceptType;
+import org.stackwire.fca.Context;
+import org.stackwire.fca.relations.BinaryRelations;
+
+/**
+ * Generates the semiconcepts of a context: the pairs (A, A') and (B', B)
+ * that are not formal concepts.
+ *
+ * Each semiconcept closes to one formal concept (C, D): either A is a proper
+ * subset of C with A' = D, or B is a proper subset of D with B' = C. The
+ * formal concepts are found with the Fast Close-by-One search, and the
+ * subsets of the extent and of the intent of each are enumerated with
+ * {@link DerivedSubsets}, so the work follows the count of semiconcepts
+ * rather than the size of the power set of objects.
+ *
+ * @see PreconceptGenerator
+ */
+public final class SemiconceptGenerator implements ConceptGenerator {
+
+	@Override
+	public Context generateConceptsFor(Context formalContext, double threshold) {
+		generateConceptsFor(formalContext, threshold, concept -> {
+			formalContext.addConcept(concept);
+			return true;
+		});
+		return formalContext;
+	}
+
+	/**
+	 * Passes the semiconcepts to the sink as they are found, without adding
+	 * them to the context
+	 */
+	@Override
+	public void generateConceptsFor(Context formalContext, double threshold, ConceptSink sink) {
+		BinaryRelations relations = formalContext.getBinaryRelations(threshold);
+		DerivedSubsets objects = DerivedSubsets.ofObjects(relations);
+		DerivedSubsets attributes = DerivedSubsets.ofAttributes(relations);
+		CloseByOneSearch search = new CloseByOneSearch(relations,
+				(extent, intent) -> objects.forEach(extent, intent, subset -> subset.equals(extent)
+						|| sink.accept(semiconcept(new Extent(subset), new Intent(intent))))
+						&& attributes.forEach(intent, extent, subset -> subset.equals(intent)
+								|| sink.accept(semiconcept(new Extent(extent), new Intent(subset)))));
+		search.search(CloseByOneSearch.root(relations));
+	}
+
+	private static Concept semiconcept(Extent extent, Intent intent) {
+		return new Concept.ConceptBuilder(extent, intent).conceptType(ConceptType.SEMICONCEPT).build();
+	}
+}
@@ -0,0 +1,186 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.generators;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.Concept.Extent;
+import org.stackwire.fca.Concept.Intent;
+import org.stackwire.fca.ConceptGenerator;
+import org.stackwire.fca.ConceptSink;
+import org.stackwire.fca.Context;
+import org.stackwire.fca.generators.CloseByOneSearch.Node;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.tags.ScoreTag;
+import org.stackwire.fca.utils.BitIndexSet;
+
+/**
+ * Generates the k formal concepts with the highest score
+ *
+ * Runs the Fast Close-by-One search depth first, keeping the best k concepts
+ * found so far in a heap. Once the heap is full, a subtree is skipped if the
+ * upper bound of the score over the subtree is not above the lowest score in
+ * the heap. Children with higher bounds are searched first, so the heap fills
+ * with good concepts early. Of concepts with equal scores, the first found is
+ * kept.
+ *
+ * The concepts are tagged with their rank and score and passed in order of
+ * decreasing score.
+ *
+ * @see ConceptScore
+ */
+public final class TopKConceptGenerator implements ConceptGenerator {
+
+	/**
+	 * Node of the search tree with the upper bound of its subtree
+	 */
+	private static final class Branch {
+
+		private final double bound;
+
+		private final Node node;
+
+		private Branch(Node node, double bound) {
+			this.node = node;
+			this.bound = bound;
+		}
+	}
+
+	/**
+	 * Concept found by the search with its score and the order it was found in
+	 */
+	private static final class Scored {
+
+		private final BitIndexSet extent;
+
+		private final BitIndexSet intent;
+
+		private final long order;
+
+		private final double score;
+
+		private Scored(BitIndexSet extent, BitIndexSet intent, double score, long order) {
+			this.extent = extent;
+			this.intent = intent;
+			this.score = score;
+			this.order = order;
+		}
+	}
+
+	/**
+	 * Orders concepts from worst to best: by score, then later found first
+	 */
+	private static final Comparator<Scored> WORST_FIRST = Comparator.<Scored> comparingDouble(s -> s.score)
+			.thenComparing(Comparator.<Scored> comparingLong(s -> s.order).reversed());
+
+	private final int k;
+
+	private final ConceptScore score;
+
+	/**
+	 * Constructor
+	 *
+	 * @param k
+	 *            count of concepts to generate
+	 * @param score
+	 *            score to rank concepts by
+	 */
+	public TopKConceptGenerator(int k, ConceptScore score) {
+		if (k < 1) {
+			throw new IllegalArgumentException("k must be positive: " + k);
+		}
+		if (score == null) {
+			throw new IllegalArgumentException("score is null");
+		}
+		this.k = k;
+		this.score = score;
+	}
+
+	@Override
+	public Context generateConceptsFor(Context formalContext, double threshold) {
+		generateConceptsFor(formalContext, threshold, concept -> {
+			formalContext.addConcept(concept);
+			return true;
+		});
+		return formalContext;
+	}
+
+	/**
+	 * Searches for the best concepts, then passes them to the sink in order of
+	 * decreasing score without adding them to the context
+	 */
+	@Override
+	public void generateConceptsFor(Context formalContext, double threshold, ConceptSink sink) {
+		BinaryRelations relations = formalContext.getBinaryRelations(threshold);
+		PriorityQueue<Scored> best = new PriorityQueue<>(k + 1, WORST_FIRST);
+		long[] order = new long[1];
+		CloseByOneSearch search = new CloseByOneSearch(relations, (extent, intent) -> {
+			Scored scored = new Scored(extent, intent, score.score(relations, extent, intent), order[0]++);
+			if (best.size() < k) {
+				best.add(scored);
+			} else if (WORST_FIRST.compare(scored, best.peek()) > 0) {
+				best.poll();
+				best.add(scored);
+			}
+			return true;
+		});
+
+		Deque<Branch> stack = new ArrayDeque<>();
+		Node root = CloseByOneSearch.root(relations);
+		stack.push(new Branch(root, score.upperBound(relations, root.extent, root.intent, root.y)));
+		List<Branch> children = new ArrayList<>();
+		while (!stack.isEmpty()) {
+			Branch branch = stack.pop();
+			if (isPruned(branch.bound, best)) {
+				continue;
+			}
+			children.clear();
+			for (Node child : search.expand(branch.node)) {
+				double bound = score.upperBound(relations, child.extent, child.intent, child.y);
+				if (!isPruned(bound, best)) {
+					children.add(new Branch(child, bound));
+				}
+			}
+			children.sort(Comparator.comparingDouble(child -> child.bound));
+			children.forEach(stack::push);
+		}
+
+		List<Scored> ranked = new ArrayList<>(best);
+		ranked.sort(WORST_FIRST.reversed());
+		for (int rank = 0; rank < ranked.size(); rank++) {
+			Scored scored = ranked.get(rank);
+			Concept concept = new Concept.ConceptBuilder(new Extent(scored.extent), new Intent(scored.intent))
+					.conceptTag(new ScoreTag(rank, scored.score)).build();
+			if (!sink.accept(concept)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns true if the heap is full and no concept with the specified bound
+	 * can enter it
+	 */
+	private boolean isPruned(double bound, PriorityQueue<Scored> best) {
+		return best.size() == k && bound <= best.peek().score;
+	}
+}
@@ -32,9 +32,11 @@ import org.stackwire.fca.ConceptGenerator;
 import org.stackwire.fca.Context;
 import org.stackwire.fca.graph.Graph;
 import org.stackwire.fca.graph.Node;
+import org.stackwire.fca.relations.RelationStorage;
 
 /**
- * Reader for schema.org n-triple format.
+ * Reader for schema.org n-triple format. The context is mostly empty, so its
+ * relations are stored sparsely.
  */
 public final class SchemaContextReader implements ContextReader {
 
@@ -107,7 +109,7 @@ public final class SchemaContextReader implements ContextReader {
 
 		GraphResult result = buildGraph(iter);
 		return new Context.ContextBuilder(result.graph, result.graph.get("Thing"),
-				new ArrayList<String>(result.attributeNames)).build();
+				new ArrayList<String>(result.attributeNames)).storage(RelationStorage.SPARSE).build();
 	}
 
 }
@@ -0,0 +1,169 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.relations;
+
+import org.stackwire.fca.utils.BitIndexSet;
+
+/**
+ * Binary cross table of relations. Rows represent objects, while columns
+ * represent attributes. Implementations do not check bounds; it's up to the
+ * caller to ensure that the object and attribute indexes are within bounds.
+ */
+public interface BinaryRelations {
+
+	/**
+	 * Add relation between the specified object and attribute. This is an
+	 * optional operation.
+	 *
+	 * @param objectIndex
+	 *            index of object
+	 * @param attributeIndex
+	 *            index of attribute
+	 * @throws UnsupportedOperationException
+	 *             if the relations are read-only
+	 */
+	void addRelation(int objectIndex, int attributeIndex);
+
+	/**
+	 * Retains only the objects of the specified set that have the specified
+	 * attribute
+	 *
+	 * @param attributeIndex
+	 *            index of attribute
+	 * @param objects
+	 *            set of objects to update in place
+	 */
+	void andColumn(int attributeIndex, BitIndexSet objects);
+
+	/**
+	 * Retains only the attributes of the specified set that the specified
+	 * object has
+	 *
+	 * @param objectIndex
+	 *            index of object
+	 * @param attributes
+	 *            set of attributes to update in place
+	 */
+	void andRow(int objectIndex, BitIndexSet attributes);
+
+	/**
+	 * Returns a read-only view of these relations. Changes made through this
+	 * instance are visible in the view.
+	 *
+	 * @return read-only view of these relations
+	 */
+	BinaryRelations asReadOnly();
+
+	/**
+	 * Count of attributes (columns)
+	 *
+	 * @return count of attributes
+	 */
+	int attributeCount();
+
+	/**
+	 * Returns new writable relations with the same relations as these,
+	 * sharing no storage with them
+	 *
+	 * @return copy of these relations
+	 */
+	BinaryRelations copy();
+
+	/**
+	 * Returns true if object has attribute, otherwise false
+	 *
+	 * @param objectIndex
+	 *            index of object
+	 * @param attributeIndex
+	 *            index of attribute
+	 * @return true if object has attribute, otherwise false
+	 */
+	boolean hasRelation(int objectIndex, int attributeIndex);
+
+	/**
+	 * Returns true if these relations are read-only, otherwise false
+	 *
+	 * @return true if these relations are read-only, otherwise false
+	 */
+	boolean isReadOnly();
+
+	/**
+	 * Count of objects (rows)
+	 *
+	 * @return count of objects
+	 */
+	int objectCount();
+
+	/**
+	 * Remove relation between the specified object and attribute. This is an
+	 * optional operation.
+	 *
+	 * @param objectIndex
+	 *            index of object
+	 * @param attributeIndex
+	 *            index of attribute
+	 * @throws UnsupportedOperationException
+	 *             if the relations are read-only
+	 */
+	void removeRelation(int objectIndex, int attributeIndex);
+
+	/**
+	 * Returns relations as a table of 0 and 1 values
+	 *
+	 * @return relations as a table of 0 and 1 values
+	 */
+	default double[][] toTable() {
+		double[][] table = new double[objectCount()][attributeCount()];
+		for (int i = 0; i < table.length; i++) {
+			for (int j = 0; j < table[i].length; j++) {
+				if (hasRelation(i, j)) {
+					table[i][j] = 1;
+				}
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * Returns new writable relations with an object appended after the last
+	 * object. These relations are not changed.
+	 *
+	 * @param attributes
+	 *            attributes of the new object
+	 * @return relations with the new object
+	 */
+	BinaryRelations withObject(BitIndexSet attributes);
+
+	/**
+	 * Returns new writable relations without the specified attribute. The
+	 * attributes above it move down by one. These relations are not changed.
+	 *
+	 * @param attributeIndex
+	 *            index of the attribute to remove
+	 * @return relations without the attribute
+	 */
+	BinaryRelations withoutAttribute(int attributeIndex);
+
+	/**
+	 * Returns new writable relations without the specified object. The
+	 * objects above it move down by one. These relations are not changed.
+	 *
+	 * @param objectIndex
+	 *            index of the object to remove
+	 * @return relations without the object
+	 */
+	BinaryRelations withoutObject(int objectIndex);
+}
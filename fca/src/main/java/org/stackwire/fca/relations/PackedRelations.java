@@ -0,0 +1,425 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.relations;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import org.stackwire.fca.utils.BitIndexSet;
+
+/**
+ * Binary relations packed into rows of long words, one bit per cell. An
+ * optional column view packs the same relations by attribute, which makes
+ * operations over the objects of an attribute word-parallel as well.
+ */
+public final class PackedRelations implements BinaryRelations {
+
+	/**
+	 * Tables with at least this many cells are packed in parallel across rows
+	 */
+	private static final long PARALLEL_CELLS = 1 << 16;
+
+	/**
+	 * Creates packed relations from the specified binary relations. A cell is
+	 * set if its value, 1 for a relation and 0 otherwise, is above the
+	 * specified threshold.
+	 *
+	 * @param relations
+	 *            binary relations
+	 * @param threshold
+	 *            threshold
+	 * @return packed relations
+	 */
+	public static PackedRelations of(BinaryRelations relations, double threshold) {
+		PackedRelations packed = new PackedRelations(relations.objectCount(), relations.attributeCount());
+		if (threshold >= 1) {
+			return packed;
+		}
+		if (threshold < 0) {
+			rows(packed).forEach(i -> {
+				for (int j = 0; j < packed.attributeCount; j++) {
+					packed.rows[i * packed.rowWords + (j >>> 6)] |= 1L << j;
+				}
+			});
+		} else if (relations instanceof PackedRelations) {
+			System.arraycopy(((PackedRelations) relations).rows, 0, packed.rows, 0, packed.rows.length);
+		} else {
+			rows(packed).forEach(i -> {
+				for (int j = 0; j < packed.attributeCount; j++) {
+					if (relations.hasRelation(i, j)) {
+						packed.rows[i * packed.rowWords + (j >>> 6)] |= 1L << j;
+					}
+				}
+			});
+		}
+		return packed;
+	}
+
+	/**
+	 * Creates packed relations from the specified cross table. A cell is set if
+	 * its value is above the specified threshold. Large tables are packed in
+	 * parallel across rows.
+	 *
+	 * @param relations
+	 *            cross table of relations
+	 * @param threshold
+	 *            threshold
+	 * @return packed relations
+	 */
+	public static PackedRelations of(double[][] relations, double threshold) {
+		if (relations == null) {
+			throw new IllegalArgumentException("relations is null");
+		}
+		PackedRelations packed = new PackedRelations(relations.length,
+				relations.length == 0 ? 0 : relations[0].length);
+		rows(packed).forEach(i -> {
+			double[] row = relations[i];
+			int offset = i * packed.rowWords;
+			for (int j = 0; j < packed.attributeCount; j++) {
+				if (row[j] > threshold) {
+					packed.rows[offset + (j >>> 6)] |= 1L << j;
+				}
+			}
+		});
+		return packed;
+	}
+
+	/**
+	 * Returns stream of the row indexes of the specified relations, parallel
+	 * if the relations are large. Each row owns its words, so rows may be
+	 * written concurrently.
+	 */
+	private static IntStream rows(PackedRelations packed) {
+		IntStream rows = IntStream.range(0, packed.objectCount);
+		return ((long) packed.objectCount * packed.attributeCount >= PARALLEL_CELLS) ? rows.parallel() : rows;
+	}
+
+	/**
+	 * Returns the number of long words needed to hold the specified number of
+	 * bits
+	 *
+	 * @param bits
+	 *            number of bits
+	 * @return number of long words
+	 */
+	static int wordsFor(int bits) {
+		return (bits + 63) >>> 6;
+	}
+
+	private final int attributeCount;
+
+	/**
+	 * Attribute-major copy of the relations, built on first use
+	 */
+	private volatile long[] columns;
+
+	private final int columnWords;
+
+	private final int objectCount;
+
+	/**
+	 * Writable relations this read-only view was made from, or null if these
+	 * relations are writable
+	 */
+	private final PackedRelations source;
+
+	/**
+	 * Object-major relations, rowWords words per object. Words past the last
+	 * object are spare capacity for appended objects.
+	 */
+	private final long[] rows;
+
+	/**
+	 * True once an object has been appended into the spare capacity of the
+	 * rows, which then belongs to the appended relations
+	 */
+	private boolean extended;
+
+	private final int rowWords;
+
+	/**
+	 * Constructor for empty relations
+	 *
+	 * @param objectCount
+	 *            count of objects
+	 * @param attributeCount
+	 *            count of attributes
+	 */
+	public PackedRelations(int objectCount, int attributeCount) {
+		if (objectCount < 0 || attributeCount < 0) {
+			throw new IllegalArgumentException("Negative count");
+		}
+		this.objectCount = objectCount;
+		this.attributeCount = attributeCount;
+		this.rowWords = wordsFor(attributeCount);
+		this.columnWords = wordsFor(objectCount);
+		this.rows = new long[objectCount * rowWords];
+		this.source = null;
+	}
+
+	private PackedRelations(int objectCount, int attributeCount, long[] rows) {
+		this.objectCount = objectCount;
+		this.attributeCount = attributeCount;
+		this.rowWords = wordsFor(attributeCount);
+		this.columnWords = wordsFor(objectCount);
+		this.rows = rows;
+		this.source = null;
+	}
+
+	private PackedRelations(PackedRelations source) {
+		this.objectCount = source.objectCount;
+		this.attributeCount = source.attributeCount;
+		this.rowWords = source.rowWords;
+		this.columnWords = source.columnWords;
+		this.rows = source.rows;
+		this.source = source;
+	}
+
+	@Override
+	public void addRelation(int objectIndex, int attributeIndex) {
+		checkWritable();
+		rows[objectIndex * rowWords + (attributeIndex >>> 6)] |= 1L << attributeIndex;
+		long[] cols = columns;
+		if (cols != null) {
+			cols[attributeIndex * columnWords + (objectIndex >>> 6)] |= 1L << objectIndex;
+		}
+	}
+
+	@Override
+	public void andColumn(int attributeIndex, BitIndexSet objects) {
+		and(columnView(), attributeIndex * columnWords, columnWords, objects.words());
+	}
+
+	@Override
+	public void andRow(int objectIndex, BitIndexSet attributes) {
+		and(rows, objectIndex * rowWords, rowWords, attributes.words());
+	}
+
+	private static void and(long[] source, int offset, int length, long[] target) {
+		int common = Math.min(length, target.length);
+		for (int w = 0; w < common; w++) {
+			target[w] &= source[offset + w];
+		}
+		for (int w = common; w < target.length; w++) {
+			target[w] = 0;
+		}
+	}
+
+	/**
+	 * Returns a read-only view of these relations. The view shares the words
+	 * of these relations, so changes made through this instance are visible
+	 * in the view.
+	 *
+	 * @return read-only view of these relations
+	 */
+	@Override
+	public PackedRelations asReadOnly() {
+		return (source != null) ? this : new PackedRelations(this);
+	}
+
+	@Override
+	public int attributeCount() {
+		return attributeCount;
+	}
+
+	private void checkWritable() {
+		if (source != null) {
+			throw new UnsupportedOperationException("Relations are read-only");
+		}
+	}
+
+	/**
+	 * Returns the attribute-major view of the relations, building it if
+	 * needed. Word k of column j is at index j * columnWords() + k. This is the
+	 * backing array; callers must not modify it.
+	 *
+	 * @return attribute-major view of the relations
+	 */
+	public long[] columnView() {
+		if (source != null) {
+			return source.columnView();
+		}
+		long[] cols = columns;
+		if (cols == null) {
+			synchronized (this) {
+				cols = columns;
+				if (cols == null) {
+					cols = new long[attributeCount * columnWords];
+					for (int i = 0; i < objectCount; i++) {
+						int offset = i * rowWords;
+						for (int w = 0; w < rowWords; w++) {
+							long word = rows[offset + w];
+							while (word != 0) {
+								int j = (w << 6) + Long.numberOfTrailingZeros(word);
+								cols[j * columnWords + (i >>> 6)] |= 1L << i;
+								word &= word - 1;
+							}
+						}
+					}
+					columns = cols;
+				}
+			}
+		}
+		return cols;
+	}
+
+	/**
+	 * Number of long words per column of the column view
+	 *
+	 * @return number of long words per column
+	 */
+	public int columnWords() {
+		return columnWords;
+	}
+
+	@Override
+	public PackedRelations copy() {
+		return new PackedRelations(objectCount, attributeCount, Arrays.copyOf(rows, objectCount * rowWords));
+	}
+
+	/**
+	 * Returns true if the column view has been built, otherwise false
+	 *
+	 * @return true if the column view has been built, otherwise false
+	 */
+	public boolean hasColumnView() {
+		return (source != null) ? source.hasColumnView() : columns != null;
+	}
+
+	@Override
+	public boolean hasRelation(int objectIndex, int attributeIndex) {
+		return (rows[objectIndex * rowWords + (attributeIndex >>> 6)] & (1L << attributeIndex)) != 0;
+	}
+
+	@Override
+	public int objectCount() {
+		return objectCount;
+	}
+
+	/**
+	 * Returns true if these relations are read-only, otherwise false
+	 *
+	 * @return true if these relations are read-only, otherwise false
+	 */
+	@Override
+	public boolean isReadOnly() {
+		return source != null;
+	}
+
+	@Override
+	public void removeRelation(int objectIndex, int attributeIndex) {
+		checkWritable();
+		rows[objectIndex * rowWords + (attributeIndex >>> 6)] &= ~(1L << attributeIndex);
+		long[] cols = columns;
+		if (cols != null) {
+			cols[attributeIndex * columnWords + (objectIndex >>> 6)] &= ~(1L << objectIndex);
+		}
+	}
+
+	/**
+	 * Returns the object-major relations. Word k of row i is at index i *
+	 * rowWords() + k. This is the backing array; callers must not modify it.
+	 *
+	 * @return object-major relations
+	 */
+	public long[] rowView() {
+		return rows;
+	}
+
+	/**
+	 * Number of long words per row
+	 *
+	 * @return number of long words per row
+	 */
+	public int rowWords() {
+		return rowWords;
+	}
+
+	/**
+	 * Returns relations with an object appended after the last object. The
+	 * rows grow by doubling, and the new relations take over the spare
+	 * capacity of these relations, so appending costs the words of one row.
+	 * The rows of existing objects are shared, and these relations keep
+	 * their own count of objects.
+	 *
+	 * @param attributes
+	 *            attributes of the new object
+	 * @return relations with the new object
+	 */
+	@Override
+	public PackedRelations withObject(BitIndexSet attributes) {
+		int used = objectCount * rowWords;
+		long[] grown = rows;
+		if (extended || source != null || used + rowWords > rows.length) {
+			grown = new long[Math.max(used + rowWords, used * 2)];
+			System.arraycopy(rows, 0, grown, 0, used);
+		}
+		extended = true;
+		long[] words = attributes.words();
+		int common = Math.min(rowWords, words.length);
+		System.arraycopy(words, 0, grown, used, common);
+		Arrays.fill(grown, used + common, used + rowWords, 0);
+		if (rowWords > 0 && (attributeCount & 63) != 0) {
+			grown[used + rowWords - 1] &= (1L << attributeCount) - 1;
+		}
+		return new PackedRelations(objectCount + 1, attributeCount, grown);
+	}
+
+	/**
+	 * Returns relations without the specified attribute. The attributes above
+	 * it move down by one, shifting the words of each row by one bit.
+	 *
+	 * @param attributeIndex
+	 *            index of the attribute to remove
+	 * @return relations without the attribute
+	 */
+	@Override
+	public PackedRelations withoutAttribute(int attributeIndex) {
+		int words = wordsFor(attributeCount - 1);
+		long[] shifted = new long[objectCount * words];
+		int w0 = attributeIndex >>> 6;
+		long low = (1L << attributeIndex) - 1;
+		for (int i = 0; i < objectCount; i++) {
+			int from = i * rowWords;
+			int to = i * words;
+			System.arraycopy(rows, from, shifted, to, Math.min(w0, words));
+			for (int w = w0; w < words; w++) {
+				long word = rows[from + w];
+				long next = (w + 1 < rowWords) ? rows[from + w + 1] : 0;
+				long above = (word >>> 1) | (next << 63);
+				shifted[to + w] = (w == w0) ? (word & low) | (above & ~low) : above;
+			}
+		}
+		return new PackedRelations(objectCount, attributeCount - 1, shifted);
+	}
+
+	/**
+	 * Returns relations without the specified object. The rows of the
+	 * objects above it move up by one row.
+	 *
+	 * @param objectIndex
+	 *            index of the object to remove
+	 * @return relations without the object
+	 */
+	@Override
+	public PackedRelations withoutObject(int objectIndex) {
+		long[] remaining = new long[(objectCount - 1) * rowWords];
+		System.arraycopy(rows, 0, remaining, 0, objectIndex * rowWords);
+		System.arraycopy(rows, (objectIndex + 1) * rowWords, remaining, objectIndex * rowWords,
+				(objectCount - objectIndex - 1) * rowWords);
+		return new PackedRelations(objectCount - 1, attributeCount, remaining);
+	}
+}
@@ -0,0 +1,42 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.relations;
+
+/**
+ * An enumeration of the ways a context may store its relations
+ */
+public enum RelationStorage {
+
+	/**
+	 * Table of double values, one per cell. Supports valued relations.
+	 */
+	DENSE,
+
+	/**
+	 * Binary relations packed into long words, one bit per cell.
+	 *
+	 * @see PackedRelations
+	 */
+	PACKED,
+
+	/**
+	 * Binary relations kept as sorted adjacency arrays per object and per
+	 * attribute. Memory scales with the number of relations.
+	 * 
+	 * @see SparseRelations
+	 */
+	SPARSE;
+}
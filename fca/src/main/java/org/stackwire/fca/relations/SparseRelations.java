@@ -0,0 +1,415 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.relations;
+
+import java.util.Arrays;
+
+import org.stackwire.fca.utils.BitIndexSet;
+
+/**
+ * Binary relations stored as sorted adjacency arrays, one per object row and
+ * one per attribute column. Memory and scan time are proportional to the
+ * number of relations rather than to the size of the cross table, which suits
+ * contexts that are mostly empty.
+ */
+public final class SparseRelations implements BinaryRelations {
+
+	private static final int[] EMPTY = new int[0];
+
+	/**
+	 * Creates sparse relations from the specified cross table. A cell is set if
+	 * its value is above the specified threshold.
+	 *
+	 * @param relations
+	 *            cross table of relations
+	 * @param threshold
+	 *            threshold
+	 * @return sparse relations
+	 */
+	public static SparseRelations of(double[][] relations, double threshold) {
+		if (relations == null) {
+			throw new IllegalArgumentException("relations is null");
+		}
+		SparseRelations sparse = new SparseRelations(relations.length,
+				relations.length == 0 ? 0 : relations[0].length);
+		for (int i = 0; i < sparse.objectCount; i++) {
+			for (int j = 0; j < sparse.attributeCount; j++) {
+				if (relations[i][j] > threshold) {
+					sparse.addRelation(i, j);
+				}
+			}
+		}
+		return sparse;
+	}
+
+	private final int attributeCount;
+
+	/**
+	 * Objects of each attribute, sorted, in the first columnSizes[j] entries.
+	 * Entries at or above the count of objects belong to appended relations,
+	 * which share the columns and their sizes.
+	 */
+	private final int[][] columns;
+
+	private final int[] columnSizes;
+
+	private final int objectCount;
+
+	/**
+	 * Attributes of each object, sorted, in the first rowSizes[i] entries.
+	 * Entries past the last object are spare capacity for appended objects.
+	 */
+	private final int[][] rows;
+
+	private final int[] rowSizes;
+
+	/**
+	 * True once an object has been appended into the spare capacity of the
+	 * rows and columns, which then belongs to the appended relations
+	 */
+	private boolean extended;
+
+	/**
+	 * Writable relations this read-only view was made from, or null if these
+	 * relations are writable
+	 */
+	private final SparseRelations source;
+
+	/**
+	 * Constructor for empty relations
+	 *
+	 * @param objectCount
+	 *            count of objects
+	 * @param attributeCount
+	 *            count of attributes
+	 */
+	public SparseRelations(int objectCount, int attributeCount) {
+		if (objectCount < 0 || attributeCount < 0) {
+			throw new IllegalArgumentException("Negative count");
+		}
+		this.objectCount = objectCount;
+		this.attributeCount = attributeCount;
+		this.rows = new int[objectCount][];
+		this.rowSizes = new int[objectCount];
+		this.columns = new int[attributeCount][];
+		this.columnSizes = new int[attributeCount];
+		Arrays.fill(rows, EMPTY);
+		Arrays.fill(columns, EMPTY);
+		this.source = null;
+	}
+
+	private SparseRelations(int objectCount, int[][] rows, int[] rowSizes, int[][] columns, int[] columnSizes) {
+		this.objectCount = objectCount;
+		this.attributeCount = columns.length;
+		this.rows = rows;
+		this.rowSizes = rowSizes;
+		this.columns = columns;
+		this.columnSizes = columnSizes;
+		this.source = null;
+	}
+
+	private SparseRelations(SparseRelations source) {
+		this.objectCount = source.objectCount;
+		this.attributeCount = source.attributeCount;
+		this.rows = source.rows;
+		this.rowSizes = source.rowSizes;
+		this.columns = source.columns;
+		this.columnSizes = source.columnSizes;
+		this.source = source;
+	}
+
+	@Override
+	public void addRelation(int objectIndex, int attributeIndex) {
+		checkWritable();
+		if (insert(rows, rowSizes, objectIndex, attributeIndex)) {
+			insert(columns, columnSizes, attributeIndex, objectIndex);
+		}
+	}
+
+	@Override
+	public void andColumn(int attributeIndex, BitIndexSet objects) {
+		and(columns[attributeIndex], columnSize(attributeIndex), objects.words());
+	}
+
+	@Override
+	public void andRow(int objectIndex, BitIndexSet attributes) {
+		and(rows[objectIndex], rowSizes[objectIndex], attributes.words());
+	}
+
+	/**
+	 * Retains the bits of the target words that are in the specified sorted
+	 * entries. Runs in time proportional to the entries plus the target words.
+	 */
+	private static void and(int[] entries, int size, long[] target) {
+		int k = 0;
+		for (int w = 0; w < target.length; w++) {
+			if (target[w] == 0) {
+				continue;
+			}
+			while (k < size && (entries[k] >>> 6) < w) {
+				k++;
+			}
+			long mask = 0;
+			while (k < size && (entries[k] >>> 6) == w) {
+				mask |= 1L << entries[k++];
+			}
+			target[w] &= mask;
+		}
+	}
+
+	/**
+	 * Returns a read-only view of these relations. Changes made through this
+	 * instance are visible in the view.
+	 *
+	 * @return read-only view of these relations
+	 */
+	@Override
+	public SparseRelations asReadOnly() {
+		return (source != null) ? this : new SparseRelations(this);
+	}
+
+	@Override
+	public int attributeCount() {
+		return attributeCount;
+	}
+
+	private void checkWritable() {
+		if (source != null) {
+			throw new UnsupportedOperationException("Relations are read-only");
+		}
+	}
+
+	/**
+	 * Returns count of objects that have the specified attribute
+	 *
+	 * @param attributeIndex
+	 *            index of attribute
+	 * @return count of objects that have the specified attribute
+	 */
+	public int columnSize(int attributeIndex) {
+		int[] column = columns[attributeIndex];
+		int size = columnSizes[attributeIndex];
+		if (size > 0 && column[size - 1] >= objectCount) {
+			int position = Arrays.binarySearch(column, 0, size, objectCount);
+			size = (position >= 0) ? position : -position - 1;
+		}
+		return size;
+	}
+
+	@Override
+	public SparseRelations copy() {
+		int[][] newRows = new int[objectCount][];
+		for (int i = 0; i < objectCount; i++) {
+			newRows[i] = Arrays.copyOf(rows[i], rowSizes[i]);
+		}
+		int[][] newColumns = new int[attributeCount][];
+		int[] newColumnSizes = new int[attributeCount];
+		for (int j = 0; j < attributeCount; j++) {
+			newColumnSizes[j] = columnSize(j);
+			newColumns[j] = Arrays.copyOf(columns[j], newColumnSizes[j]);
+		}
+		return new SparseRelations(objectCount, newRows, Arrays.copyOf(rowSizes, objectCount), newColumns,
+				newColumnSizes);
+	}
+
+	private static boolean delete(int[][] lists, int[] sizes, int list, int value) {
+		int size = sizes[list];
+		int position = Arrays.binarySearch(lists[list], 0, size, value);
+		if (position < 0) {
+			return false;
+		}
+		System.arraycopy(lists[list], position + 1, lists[list], position, size - position - 1);
+		sizes[list] = size - 1;
+		return true;
+	}
+
+	@Override
+	public boolean hasRelation(int objectIndex, int attributeIndex) {
+		return Arrays.binarySearch(rows[objectIndex], 0, rowSizes[objectIndex], attributeIndex) >= 0;
+	}
+
+	private static boolean insert(int[][] lists, int[] sizes, int list, int value) {
+		int size = sizes[list];
+		int position = Arrays.binarySearch(lists[list], 0, size, value);
+		if (position >= 0) {
+			return false;
+		}
+		position = -position - 1;
+		int[] entries = lists[list];
+		if (size == entries.length) {
+			entries = Arrays.copyOf(entries, Math.max(4, size * 2));
+			lists[list] = entries;
+		}
+		System.arraycopy(entries, position, entries, position + 1, size - position);
+		entries[position] = value;
+		sizes[list] = size + 1;
+		return true;
+	}
+
+	@Override
+	public boolean isReadOnly() {
+		return source != null;
+	}
+
+	@Override
+	public int objectCount() {
+		return objectCount;
+	}
+
+	/**
+	 * Returns count of relations
+	 *
+	 * @return count of relations
+	 */
+	public long relationCount() {
+		long count = 0;
+		for (int i = 0; i < objectCount; i++) {
+			count += rowSizes[i];
+		}
+		return count;
+	}
+
+	@Override
+	public void removeRelation(int objectIndex, int attributeIndex) {
+		checkWritable();
+		if (delete(rows, rowSizes, objectIndex, attributeIndex)) {
+			delete(columns, columnSizes, attributeIndex, objectIndex);
+		}
+	}
+
+	/**
+	 * Returns count of attributes of the specified object
+	 *
+	 * @param objectIndex
+	 *            index of object
+	 * @return count of attributes of the specified object
+	 */
+	public int rowSize(int objectIndex) {
+		return rowSizes[objectIndex];
+	}
+
+	/**
+	 * Returns the first size entries of the specified list with the specified
+	 * value removed and the values above it shifted down by one
+	 */
+	private static int[] without(int[] entries, int size, int value) {
+		int[] remaining = new int[size];
+		int n = 0;
+		for (int k = 0; k < size; k++) {
+			int entry = entries[k];
+			if (entry != value) {
+				remaining[n++] = (entry > value) ? entry - 1 : entry;
+			}
+		}
+		return (n == size) ? remaining : Arrays.copyOf(remaining, n);
+	}
+
+	/**
+	 * Returns relations with an object appended after the last object. The
+	 * index of the new object is the largest, so it goes to the end of the
+	 * column of each of its attributes. The rows grow by doubling, and the
+	 * new relations take over the spare capacity of the rows and columns of
+	 * these relations, so appending costs the attributes of the new object.
+	 * The rows and columns of existing objects are shared, and these relations
+	 * keep their own count of objects. Appending to these relations again
+	 * copies them first.
+	 *
+	 * @param attributes
+	 *            attributes of the new object
+	 * @return relations with the new object
+	 */
+	@Override
+	public SparseRelations withObject(BitIndexSet attributes) {
+		if (extended || source != null) {
+			return copy().withObject(attributes);
+		}
+		int[][] grownRows = rows;
+		int[] grownRowSizes = rowSizes;
+		if (objectCount == rows.length) {
+			int capacity = Math.max(4, objectCount * 2);
+			grownRows = Arrays.copyOf(rows, capacity);
+			grownRowSizes = Arrays.copyOf(rowSizes, capacity);
+		}
+		extended = true;
+		int[] row = attributes.toArray();
+		grownRows[objectCount] = row;
+		grownRowSizes[objectCount] = row.length;
+		for (int j : row) {
+			int size = columnSizes[j];
+			if (size == columns[j].length) {
+				columns[j] = Arrays.copyOf(columns[j], Math.max(4, size * 2));
+			}
+			columns[j][size] = objectCount;
+			columnSizes[j] = size + 1;
+		}
+		return new SparseRelations(objectCount + 1, grownRows, grownRowSizes, columns, columnSizes);
+	}
+
+	/**
+	 * Returns relations without the specified attribute. Attributes above it
+	 * move down by one in every row, and its column is dropped.
+	 *
+	 * @param attributeIndex
+	 *            index of the attribute to remove
+	 * @return relations without the attribute
+	 */
+	@Override
+	public SparseRelations withoutAttribute(int attributeIndex) {
+		int[][] newRows = new int[objectCount][];
+		int[] newRowSizes = new int[objectCount];
+		for (int i = 0; i < objectCount; i++) {
+			newRows[i] = without(rows[i], rowSizes[i], attributeIndex);
+			newRowSizes[i] = newRows[i].length;
+		}
+		int[][] newColumns = new int[attributeCount - 1][];
+		int[] newColumnSizes = new int[attributeCount - 1];
+		for (int j = 0, k = 0; j < attributeCount; j++) {
+			if (j != attributeIndex) {
+				int size = columnSize(j);
+				newColumns[k] = Arrays.copyOf(columns[j], size);
+				newColumnSizes[k++] = size;
+			}
+		}
+		return new SparseRelations(objectCount, newRows, newRowSizes, newColumns, newColumnSizes);
+	}
+
+	/**
+	 * Returns relations without the specified object. Objects above it move
+	 * down by one in every column, and its row is dropped.
+	 *
+	 * @param objectIndex
+	 *            index of the object to remove
+	 * @return relations without the object
+	 */
+	@Override
+	public SparseRelations withoutObject(int objectIndex) {
+		int[][] newColumns = new int[attributeCount][];
+		int[] newColumnSizes = new int[attributeCount];
+		for (int j = 0; j < attributeCount; j++) {
+			newColumns[j] = without(columns[j], columnSize(j), objectIndex);
+			newColumnSizes[j] = newColumns[j].length;
+		}
+		int[][] newRows = new int[objectCount - 1][];
+		int[] newRowSizes = new int[objectCount - 1];
+		for (int i = 0, k = 0; i < objectCount; i++) {
+			if (i != objectIndex) {
+				newRows[k] = Arrays.copyOf(rows[i], rowSizes[i]);
+				newRowSizes[k++] = rowSizes[i];
+			}
+		}
+		return new SparseRelations(objectCount - 1, newRows, newRowSizes, newColumns, newColumnSizes);
+	}
+}
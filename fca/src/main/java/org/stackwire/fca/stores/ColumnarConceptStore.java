@@ -0,0 +1,515 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.stores;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.Concept.Extent;
+import org.stackwire.fca.Concept.Intent;
+import org.stackwire.fca.ConceptTag;
+import org.stackwire.fca.ConceptType;
+import org.stackwire.fca.tags.IndexTag;
+import org.stackwire.fca.utils.BitIndexSet;
+import org.stackwire.fca.utils.SemanticIndexSet;
+
+/**
+ * Concept store that packs extents and intents into pages of long words, one
+ * bit row per concept, with the concept type and tag index kept in parallel
+ * primitive columns. Extent and intent lookups go through open addressing
+ * tables of concept ids. No concept objects are retained; each read creates a
+ * new concept from its rows.
+ *
+ * The store is sized for a count of objects and attributes. A concept with
+ * indicies outside of these bounds widens the rows of the store to at least
+ * double their width, which rehashes every concept. The rows of removed
+ * concepts are kept on a free list and reused by later additions, so a store
+ * that has concepts replaced does not grow. Lookups share scratch rows, so
+ * the store is not thread safe.
+ */
+public final class ColumnarConceptStore implements ConceptStore {
+
+	/**
+	 * Concept ids of a single concept type with their extent and intent
+	 * tables. Table slots hold id + 1, with 0 marking an empty slot.
+	 */
+	private final class TypeIndex extends AbstractCollection<Concept> {
+
+		private int count;
+
+		private int[] extentTable = new int[16];
+
+		private int[] ids = new int[16];
+
+		private int[] intentTable = new int[16];
+
+		private void add(int id, int extentHash, int intentHash) {
+			if (count == ids.length) {
+				ids = Arrays.copyOf(ids, count * 2);
+			}
+			positions[id] = count;
+			ids[count++] = id;
+			if (count * 2 > extentTable.length) {
+				extentTable = rehash(extentTable, extentPages, extentWords, extentTable.length * 2);
+				intentTable = rehash(intentTable, intentPages, intentWords, intentTable.length * 2);
+			}
+			insert(extentTable, extentHash, id);
+			insert(intentTable, intentHash, id);
+		}
+
+		/**
+		 * Removes the specified id from the id list and from both tables. The
+		 * last id of the list takes the place of the removed id.
+		 */
+		private void remove(int id) {
+			int last = ids[--count];
+			ids[positions[id]] = last;
+			positions[last] = positions[id];
+			delete(extentTable, extentPages, extentWords, id);
+			delete(intentTable, intentPages, intentWords, id);
+		}
+
+		@Override
+		public void forEach(Consumer<? super Concept> action) {
+			int n = count;
+			for (int k = 0; k < n; k++) {
+				action.accept(conceptAt(ids[k]));
+			}
+		}
+
+		@Override
+		public Iterator<Concept> iterator() {
+			return new Iterator<Concept>() {
+
+				private int next;
+
+				@Override
+				public boolean hasNext() {
+					return next < count;
+				}
+
+				@Override
+				public Concept next() {
+					if (next >= count) {
+						throw new NoSuchElementException();
+					}
+					return conceptAt(ids[next++]);
+				}
+			};
+		}
+
+		private int[] rehash(int[] table, long[][] pages, int words, int length) {
+			int[] rehashed = new int[length];
+			for (int slot : table) {
+				if (slot != 0) {
+					int id = slot - 1;
+					insert(rehashed, hash(pages[page(id)], offset(id, words), words), id);
+				}
+			}
+			return rehashed;
+		}
+
+		@Override
+		public int size() {
+			return count;
+		}
+	}
+
+	private static final int NO_TAG = Integer.MIN_VALUE;
+
+	private static final int PAGE_BITS = 12;
+
+	private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+	private static int hash(long[] words, int offset, int length) {
+		long h = 1;
+		for (int w = 0; w < length; w++) {
+			h = 31 * h + words[offset + w];
+		}
+		h ^= h >>> 32;
+		return (int) (h ^ (h >>> 16));
+	}
+
+	/**
+	 * Deletes the specified id from a linear probing table, shifting back the
+	 * ids that follow it in the same run
+	 */
+	private static void delete(int[] table, long[][] pages, int words, int id) {
+		int mask = table.length - 1;
+		int hole = hash(pages[page(id)], offset(id, words), words) & mask;
+		while (table[hole] != id + 1) {
+			hole = (hole + 1) & mask;
+		}
+		for (int slot = (hole + 1) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+			int other = table[slot] - 1;
+			int home = hash(pages[page(other)], offset(other, words), words) & mask;
+			if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+				table[hole] = table[slot];
+				hole = slot;
+			}
+		}
+		table[hole] = 0;
+	}
+
+	private static void insert(int[] table, int hash, int id) {
+		int mask = table.length - 1;
+		int slot = hash & mask;
+		while (table[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		table[slot] = id + 1;
+	}
+
+	private static int page(int id) {
+		return id >>> PAGE_BITS;
+	}
+
+	private static int offset(int id, int words) {
+		return (id & (PAGE_SIZE - 1)) * words;
+	}
+
+	private int attributeCount;
+
+	private long[][] extentPages = new long[0][];
+
+	private int extentWords;
+
+	/**
+	 * Ids of the rows of removed concepts, in the first freeCount entries
+	 */
+	private int[] free = new int[0];
+
+	private int freeCount;
+
+	private final TypeIndex[] indexes = new TypeIndex[ConceptType.values().length];
+
+	private long[][] intentPages = new long[0][];
+
+	private int intentWords;
+
+	private int objectCount;
+
+	/**
+	 * Tags that are not index tags, keyed by concept id
+	 */
+	private final Map<Integer, ConceptTag> otherTags = new HashMap<>();
+
+	/**
+	 * Position of each concept id in the id list of its type
+	 */
+	private int[] positions = new int[0];
+
+	/**
+	 * Count of rows in the arenas, including the free rows
+	 */
+	private int rows;
+
+	/**
+	 * Scratch rows for lookups, padded to the arena row width
+	 */
+	private long[] scratchExtent;
+
+	private long[] scratchIntent;
+
+	private int size;
+
+	private int[] tags = new int[0];
+
+	private byte[] types = new byte[0];
+
+	/**
+	 * Constructor
+	 *
+	 * @param objectCount
+	 *            count of objects of the context
+	 * @param attributeCount
+	 *            count of attributes of the context
+	 */
+	public ColumnarConceptStore(int objectCount, int attributeCount) {
+		if (objectCount < 0 || attributeCount < 0) {
+			throw new IllegalArgumentException("Negative count");
+		}
+		this.objectCount = objectCount;
+		this.attributeCount = attributeCount;
+		this.extentWords = new BitIndexSet(objectCount).words().length;
+		this.intentWords = new BitIndexSet(attributeCount).words().length;
+		this.scratchExtent = new long[extentWords];
+		this.scratchIntent = new long[intentWords];
+		for (int t = 0; t < indexes.length; t++) {
+			indexes[t] = new TypeIndex();
+		}
+	}
+
+	@Override
+	public boolean add(Concept concept) {
+		if (!pad(concept.getExtent(), scratchExtent, objectCount)
+				|| !pad(concept.getIntent(), scratchIntent, attributeCount)) {
+			widen(concept.getExtent().getBitSet().length(), concept.getIntent().getBitSet().length());
+			pad(concept.getExtent(), scratchExtent, objectCount);
+			pad(concept.getIntent(), scratchIntent, attributeCount);
+		}
+		TypeIndex index = indexes[concept.getConceptType().ordinal()];
+		int extentHash = hash(scratchExtent, 0, extentWords);
+		int intentHash = hash(scratchIntent, 0, intentWords);
+		int[] table = index.extentTable;
+		int mask = table.length - 1;
+		for (int slot = extentHash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+			int id = table[slot] - 1;
+			if (rowEquals(extentPages, extentWords, id, scratchExtent)
+					&& rowEquals(intentPages, intentWords, id, scratchIntent)) {
+				return false;
+			}
+		}
+		int id = append(concept);
+		index.add(id, extentHash, intentHash);
+		return true;
+	}
+
+	/**
+	 * Writes the scratch rows and the columns of the specified concept to a
+	 * free row of the arenas, or appends them if there is none
+	 *
+	 * @return id of the written concept
+	 */
+	private int append(Concept concept) {
+		int id = (freeCount > 0) ? free[--freeCount] : rows++;
+		if (id == types.length) {
+			int capacity = Math.max(16, id * 2);
+			types = Arrays.copyOf(types, capacity);
+			tags = Arrays.copyOf(tags, capacity);
+			positions = Arrays.copyOf(positions, capacity);
+		}
+		if (page(id) == extentPages.length) {
+			extentPages = Arrays.copyOf(extentPages, extentPages.length + 1);
+			intentPages = Arrays.copyOf(intentPages, intentPages.length + 1);
+			extentPages[page(id)] = new long[PAGE_SIZE * extentWords];
+			intentPages[page(id)] = new long[PAGE_SIZE * intentWords];
+		}
+		System.arraycopy(scratchExtent, 0, extentPages[page(id)], offset(id, extentWords), extentWords);
+		System.arraycopy(scratchIntent, 0, intentPages[page(id)], offset(id, intentWords), intentWords);
+		types[id] = (byte) concept.getConceptType().ordinal();
+		ConceptTag tag = concept.getConceptTag();
+		if (tag instanceof IndexTag) {
+			tags[id] = ((IndexTag) tag).getIndex();
+		} else {
+			tags[id] = NO_TAG;
+			if (tag != null) {
+				otherTags.put(id, tag);
+			}
+		}
+		size++;
+		return id;
+	}
+
+	/**
+	 * Creates the concept stored under the specified id
+	 */
+	private Concept conceptAt(int id) {
+		BitIndexSet extent = new BitIndexSet(objectCount);
+		BitIndexSet intent = new BitIndexSet(attributeCount);
+		System.arraycopy(extentPages[page(id)], offset(id, extentWords), extent.words(), 0, extentWords);
+		System.arraycopy(intentPages[page(id)], offset(id, intentWords), intent.words(), 0, intentWords);
+		ConceptTag tag = (tags[id] == NO_TAG) ? otherTags.get(id) : new IndexTag(tags[id]);
+		return new Concept.ConceptBuilder(new Extent(extent), new Intent(intent))
+				.conceptType(ConceptType.values()[types[id]]).conceptTag(tag).build();
+	}
+
+	@Override
+	public boolean contains(Extent extent, ConceptType conceptType) {
+		return find(indexes[conceptType.ordinal()].extentTable, extentPages, extentWords, extent, scratchExtent,
+				objectCount, null);
+	}
+
+	@Override
+	public boolean contains(Intent intent, ConceptType conceptType) {
+		return find(indexes[conceptType.ordinal()].intentTable, intentPages, intentWords, intent, scratchIntent,
+				attributeCount, null);
+	}
+
+	@Override
+	public int count(ConceptType conceptType) {
+		return indexes[conceptType.ordinal()].count;
+	}
+
+	/**
+	 * Looks up the rows equal to the specified key. If matches is null,
+	 * returns on the first match; otherwise adds every matching concept.
+	 *
+	 * @return true if any row matches
+	 */
+	private boolean find(int[] table, long[][] pages, int words, SemanticIndexSet key, long[] scratch,
+			int universe, List<Concept> matches) {
+		if (!pad(key, scratch, universe)) {
+			return false;
+		}
+		boolean found = false;
+		int mask = table.length - 1;
+		for (int slot = hash(scratch, 0, words) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+			int id = table[slot] - 1;
+			if (rowEquals(pages, words, id, scratch)) {
+				if (matches == null) {
+					return true;
+				}
+				found = true;
+				matches.add(conceptAt(id));
+			}
+		}
+		return found;
+	}
+
+	@Override
+	public boolean remove(Concept concept) {
+		if (!pad(concept.getExtent(), scratchExtent, objectCount)
+				|| !pad(concept.getIntent(), scratchIntent, attributeCount)) {
+			return false;
+		}
+		TypeIndex index = indexes[concept.getConceptType().ordinal()];
+		int[] table = index.extentTable;
+		int mask = table.length - 1;
+		for (int slot = hash(scratchExtent, 0, extentWords) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+			int id = table[slot] - 1;
+			if (rowEquals(extentPages, extentWords, id, scratchExtent)
+					&& rowEquals(intentPages, intentWords, id, scratchIntent)) {
+				index.remove(id);
+				otherTags.remove(id);
+				if (freeCount == free.length) {
+					free = Arrays.copyOf(free, Math.max(16, freeCount * 2));
+				}
+				free[freeCount++] = id;
+				size--;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void forEach(ConceptType conceptType, Consumer<? super Concept> action) {
+		indexes[conceptType.ordinal()].forEach(action);
+	}
+
+	@Override
+	public Collection<Concept> get(ConceptType conceptType) {
+		return Collections.unmodifiableCollection(indexes[conceptType.ordinal()]);
+	}
+
+	@Override
+	public Collection<Concept> get(Extent extent, ConceptType conceptType) {
+		List<Concept> matches = new ArrayList<>(1);
+		find(indexes[conceptType.ordinal()].extentTable, extentPages, extentWords, extent, scratchExtent,
+				objectCount, matches);
+		return Collections.unmodifiableList(matches);
+	}
+
+	@Override
+	public Collection<Concept> get(Intent intent, ConceptType conceptType) {
+		List<Concept> matches = new ArrayList<>(1);
+		find(indexes[conceptType.ordinal()].intentTable, intentPages, intentWords, intent, scratchIntent,
+				attributeCount, matches);
+		return Collections.unmodifiableList(matches);
+	}
+
+	/**
+	 * Copies the words of the specified set into the specified row, padded
+	 * with zeros. Returns false if the set has an index outside of the
+	 * universe.
+	 */
+	private static boolean pad(SemanticIndexSet set, long[] row, int universe) {
+		BitIndexSet bits = set.getBitSet();
+		long[] words = bits.words();
+		int length = Math.min(words.length, row.length);
+		System.arraycopy(words, 0, row, 0, length);
+		Arrays.fill(row, length, row.length, 0L);
+		return bits.nextSetBit(universe) < 0;
+	}
+
+	private static boolean rowEquals(long[][] pages, int words, int id, long[] row) {
+		long[] page = pages[page(id)];
+		int offset = offset(id, words);
+		for (int w = 0; w < words; w++) {
+			if (page[offset + w] != row[w]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Widens the rows of the arenas to hold at least the specified counts of
+	 * objects and attributes, and rehashes the tables
+	 */
+	private void widen(int minObjectCount, int minAttributeCount) {
+		int newObjectCount = (minObjectCount > objectCount) ? Math.max(minObjectCount, objectCount * 2) : objectCount;
+		int newAttributeCount = (minAttributeCount > attributeCount)
+				? Math.max(minAttributeCount, attributeCount * 2) : attributeCount;
+		int newExtentWords = new BitIndexSet(newObjectCount).words().length;
+		int newIntentWords = new BitIndexSet(newAttributeCount).words().length;
+		extentPages = widen(extentPages, extentWords, newExtentWords);
+		intentPages = widen(intentPages, intentWords, newIntentWords);
+		objectCount = newObjectCount;
+		attributeCount = newAttributeCount;
+		extentWords = newExtentWords;
+		intentWords = newIntentWords;
+		scratchExtent = new long[extentWords];
+		scratchIntent = new long[intentWords];
+		for (TypeIndex index : indexes) {
+			index.extentTable = index.rehash(index.extentTable, extentPages, extentWords, index.extentTable.length);
+			index.intentTable = index.rehash(index.intentTable, intentPages, intentWords, index.intentTable.length);
+		}
+	}
+
+	private long[][] widen(long[][] pages, int words, int newWords) {
+		if (newWords == words) {
+			return pages;
+		}
+		long[][] widened = new long[pages.length][];
+		for (int p = 0; p < pages.length; p++) {
+			widened[p] = new long[PAGE_SIZE * newWords];
+			for (int row = 0; row < PAGE_SIZE; row++) {
+				System.arraycopy(pages[p], row * words, widened[p], row * newWords, words);
+			}
+		}
+		return widened;
+	}
+
+	/**
+	 * Returns count of rows in the arenas, including the free rows
+	 *
+	 * @return count of rows in the arenas
+	 */
+	int rowCount() {
+		return rows;
+	}
+
+	/**
+	 * Returns count of concepts of all types
+	 *
+	 * @return count of concepts of all types
+	 */
+	public int size() {
+		return size;
+	}
+}
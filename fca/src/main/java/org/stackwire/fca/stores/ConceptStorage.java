@@ -0,0 +1,37 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.stores;
+
+/**
+ * An enumeration of the ways a context may store its concepts
+ */
+public enum ConceptStorage {
+
+	/**
+	 * Concept objects held in hash tables.
+	 *
+	 * @see IndexedConceptStore
+	 */
+	INDEXED,
+
+	/**
+	 * Extents and intents packed into primitive arenas, one bit row per
+	 * concept. Concepts are created on demand when read.
+	 *
+	 * @see ColumnarConceptStore
+	 */
+	COLUMNAR;
+}
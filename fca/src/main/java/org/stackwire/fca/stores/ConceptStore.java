@@ -0,0 +1,144 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.stores;
+
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.Concept.Extent;
+import org.stackwire.fca.Concept.Intent;
+import org.stackwire.fca.ConceptType;
+
+/**
+ * Storage for the concepts of a context, grouped by concept type and indexed
+ * by extent and by intent. Concepts must not be changed after they are added.
+ */
+public interface ConceptStore {
+
+	/**
+	 * Add concept to the store under its concept type. Returns true if added,
+	 * or false if an equal concept of the same type is already stored.
+	 * 
+	 * @param concept
+	 *            concept to add
+	 * @return true if added, otherwise false
+	 */
+	boolean add(Concept concept);
+
+	/**
+	 * Returns true if a concept of the specified type has the specified
+	 * extent, otherwise false
+	 * 
+	 * @param extent
+	 *            extent to match
+	 * @param conceptType
+	 *            concept type
+	 * @return true if a concept of the specified type has the specified extent
+	 */
+	boolean contains(Extent extent, ConceptType conceptType);
+
+	/**
+	 * Returns true if a concept of the specified type has the specified
+	 * intent, otherwise false
+	 * 
+	 * @param intent
+	 *            intent to match
+	 * @param conceptType
+	 *            concept type
+	 * @return true if a concept of the specified type has the specified intent
+	 */
+	boolean contains(Intent intent, ConceptType conceptType);
+
+	/**
+	 * Returns count of concepts of the specified type
+	 * 
+	 * @param conceptType
+	 *            concept type
+	 * @return count of concepts of the specified type
+	 */
+	int count(ConceptType conceptType);
+
+	/**
+	 * Applies the specified action to each concept of the specified type, in
+	 * the order they were added. No copy of the concepts is made.
+	 * 
+	 * @param conceptType
+	 *            concept type
+	 * @param action
+	 *            action to apply
+	 */
+	default void forEach(ConceptType conceptType, Consumer<? super Concept> action) {
+		get(conceptType).forEach(action);
+	}
+
+	/**
+	 * Returns unmodifiable view of the concepts of the specified type, in the
+	 * order they were added
+	 * 
+	 * @param conceptType
+	 *            concept type
+	 * @return unmodifiable view of the concepts of the specified type
+	 */
+	Collection<Concept> get(ConceptType conceptType);
+
+	/**
+	 * Returns concepts of the specified type that have the specified extent.
+	 * Is empty if no match.
+	 * 
+	 * @param extent
+	 *            extent to match
+	 * @param conceptType
+	 *            concept type
+	 * @return concepts of the specified type that have the specified extent
+	 */
+	Collection<Concept> get(Extent extent, ConceptType conceptType);
+
+	/**
+	 * Returns concepts of the specified type that have the specified intent.
+	 * Is empty if no match.
+	 * 
+	 * @param intent
+	 *            intent to match
+	 * @param conceptType
+	 *            concept type
+	 * @return concepts of the specified type that have the specified intent
+	 */
+	Collection<Concept> get(Intent intent, ConceptType conceptType);
+
+	/**
+	 * Remove concept from the store. Returns true if removed, or false if no
+	 * equal concept of the same type is stored.
+	 * 
+	 * @param concept
+	 *            concept to remove
+	 * @return true if removed, otherwise false
+	 */
+	boolean remove(Concept concept);
+
+	/**
+	 * Returns spliterator over the concepts of the specified type. No copy of
+	 * the concepts is made.
+	 * 
+	 * @param conceptType
+	 *            concept type
+	 * @return spliterator over the concepts of the specified type
+	 */
+	default Spliterator<Concept> spliterator(ConceptType conceptType) {
+		return get(conceptType).spliterator();
+	}
+}
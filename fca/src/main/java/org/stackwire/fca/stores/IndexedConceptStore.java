@@ -0,0 +1,141 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.stores;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.Concept.Extent;
+import org.stackwire.fca.Concept.Intent;
+import org.stackwire.fca.ConceptType;
+import org.stackwire.fca.utils.SemanticIndexSet;
+
+/**
+ * Concept store backed by hash tables. Duplicate checks and lookups by extent
+ * or intent take constant time.
+ */
+public final class IndexedConceptStore implements ConceptStore {
+
+	/**
+	 * Concepts of a single concept type with their extent and intent indexes
+	 */
+	private static final class TypeIndex {
+
+		private final Map<SemanticIndexSet, List<Concept>> byExtent = new HashMap<>();
+
+		private final Map<SemanticIndexSet, List<Concept>> byIntent = new HashMap<>();
+
+		private final Set<Concept> concepts = new LinkedHashSet<>();
+
+		private boolean add(Concept concept) {
+			if (!concepts.add(concept)) {
+				return false;
+			}
+			index(byExtent, concept.getExtent(), concept);
+			index(byIntent, concept.getIntent(), concept);
+			return true;
+		}
+
+		private boolean remove(Concept concept) {
+			if (!concepts.remove(concept)) {
+				return false;
+			}
+			unindex(byExtent, concept.getExtent(), concept);
+			unindex(byIntent, concept.getIntent(), concept);
+			return true;
+		}
+
+		private static void unindex(Map<SemanticIndexSet, List<Concept>> index, SemanticIndexSet key,
+				Concept concept) {
+			List<Concept> matches = index.get(key);
+			matches.remove(concept);
+			if (matches.isEmpty()) {
+				index.remove(key);
+			}
+		}
+
+		private static void index(Map<SemanticIndexSet, List<Concept>> index, SemanticIndexSet key,
+				Concept concept) {
+			List<Concept> matches = index.get(key);
+			if (matches == null) {
+				matches = new ArrayList<>(1);
+				index.put(key, matches);
+			}
+			matches.add(concept);
+		}
+	}
+
+	private static Collection<Concept> lookup(Map<SemanticIndexSet, List<Concept>> index, SemanticIndexSet key) {
+		List<Concept> matches = index.get(key);
+		return (matches == null) ? Collections.emptyList() : Collections.unmodifiableList(matches);
+	}
+
+	private final Map<ConceptType, TypeIndex> types = new EnumMap<>(ConceptType.class);
+
+	public IndexedConceptStore() {
+		for (ConceptType conceptType : ConceptType.values()) {
+			types.put(conceptType, new TypeIndex());
+		}
+	}
+
+	@Override
+	public boolean add(Concept concept) {
+		return types.get(concept.getConceptType()).add(concept);
+	}
+
+	@Override
+	public boolean remove(Concept concept) {
+		return types.get(concept.getConceptType()).remove(concept);
+	}
+
+	@Override
+	public boolean contains(Extent extent, ConceptType conceptType) {
+		return types.get(conceptType).byExtent.containsKey(extent);
+	}
+
+	@Override
+	public boolean contains(Intent intent, ConceptType conceptType) {
+		return types.get(conceptType).byIntent.containsKey(intent);
+	}
+
+	@Override
+	public int count(ConceptType conceptType) {
+		return types.get(conceptType).concepts.size();
+	}
+
+	@Override
+	public Collection<Concept> get(ConceptType conceptType) {
+		return Collections.unmodifiableSet(types.get(conceptType).concepts);
+	}
+
+	@Override
+	public Collection<Concept> get(Extent extent, ConceptType conceptType) {
+		return lookup(types.get(conceptType).byExtent, extent);
+	}
+
+	@Override
+	public Collection<Concept> get(Intent intent, ConceptType conceptType) {
+		return lookup(types.get(conceptType).byIntent, intent);
+	}
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.tags;
+
+import org.stackwire.fca.ConceptTag;
+
+/**
+ * Concept tag used to add a rank and a score to a concept
+ */
+public class ScoreTag implements ConceptTag {
+
+	private final int rank;
+
+	private final double score;
+
+	public ScoreTag(int rank, double score) {
+		this.rank = rank;
+		this.score = score;
+	}
+
+	public int getRank() {
+		return rank;
+	}
+
+	public double getScore() {
+		return score;
+	}
+
+	@Override
+	public String toString() {
+		return "ScoreTag [rank=" + rank + ", score=" + score + "]";
+	}
+
+}
@@ -0,0 +1,497 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.utils;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Set of non-negative indicies packed into long words, one bit per index. The
+ * set is sized for a universe of indicies on construction and grows if an
+ * index outside of that universe is added. Indicies are always iterated in
+ * ascending order.
+ */
+public final class BitIndexSet {
+
+	private static final long[] EMPTY = new long[0];
+
+	/**
+	 * Returns set containing the specified indicies
+	 *
+	 * @param indicies
+	 *            indicies to add
+	 * @return set containing the specified indicies
+	 */
+	public static BitIndexSet of(Collection<Integer> indicies) {
+		BitIndexSet set = new BitIndexSet();
+		if (indicies != null) {
+			for (Integer index : indicies) {
+				set.add(index);
+			}
+		}
+		return set;
+	}
+
+	/**
+	 * Returns set containing each index from start to end, inclusive
+	 *
+	 * @param start
+	 *            first index
+	 * @param end
+	 *            last index
+	 * @return set containing each index from start to end, inclusive
+	 */
+	public static BitIndexSet range(int start, int end) {
+		BitIndexSet set = new BitIndexSet(end + 1);
+		set.addRange(start, end + 1);
+		return set;
+	}
+
+	private static int wordsFor(int bits) {
+		return (bits + 63) >>> 6;
+	}
+
+	private long[] words;
+
+	/**
+	 * Constructor for an empty set
+	 */
+	public BitIndexSet() {
+		this.words = EMPTY;
+	}
+
+	/**
+	 * Constructor for a copy of the specified set
+	 *
+	 * @param other
+	 *            set to copy
+	 */
+	public BitIndexSet(BitIndexSet other) {
+		this.words = other.words.clone();
+	}
+
+	/**
+	 * Constructor for an empty set sized for indicies 0 to universe - 1
+	 *
+	 * @param universe
+	 *            count of possible indicies
+	 */
+	public BitIndexSet(int universe) {
+		if (universe < 0) {
+			throw new IllegalArgumentException("Negative universe: " + universe);
+		}
+		this.words = new long[wordsFor(universe)];
+	}
+
+	/**
+	 * Add index to set
+	 *
+	 * @param index
+	 *            index to add
+	 * @return true if the set did not already contain the index
+	 */
+	public boolean add(int index) {
+		checkIndex(index);
+		int w = index >>> 6;
+		ensureWords(w + 1);
+		long before = words[w];
+		words[w] = before | (1L << index);
+		return before != words[w];
+	}
+
+	/**
+	 * Add each index from start, inclusive, to end, exclusive
+	 *
+	 * @param start
+	 *            first index
+	 * @param end
+	 *            index after the last index
+	 * @return current instance of BitIndexSet
+	 */
+	public BitIndexSet addRange(int start, int end) {
+		checkIndex(start);
+		if (end <= start) {
+			return this;
+		}
+		ensureWords(wordsFor(end));
+		int startWord = start >>> 6;
+		int endWord = (end - 1) >>> 6;
+		long firstMask = -1L << start;
+		long lastMask = -1L >>> -end;
+		if (startWord == endWord) {
+			words[startWord] |= firstMask & lastMask;
+		} else {
+			words[startWord] |= firstMask;
+			for (int w = startWord + 1; w < endWord; w++) {
+				words[w] = -1L;
+			}
+			words[endWord] |= lastMask;
+		}
+		return this;
+	}
+
+	/**
+	 * Retains only the indicies contained in the specified set
+	 *
+	 * @param other
+	 *            set to intersect with
+	 * @return current instance of BitIndexSet
+	 */
+	public BitIndexSet and(BitIndexSet other) {
+		int common = Math.min(words.length, other.words.length);
+		for (int w = 0; w < common; w++) {
+			words[w] &= other.words[w];
+		}
+		Arrays.fill(words, common, words.length, 0);
+		return this;
+	}
+
+	/**
+	 * Removes the indicies contained in the specified set
+	 *
+	 * @param other
+	 *            set of indicies to remove
+	 * @return current instance of BitIndexSet
+	 */
+	public BitIndexSet andNot(BitIndexSet other) {
+		int common = Math.min(words.length, other.words.length);
+		for (int w = 0; w < common; w++) {
+			words[w] &= ~other.words[w];
+		}
+		return this;
+	}
+
+	/**
+	 * Returns a view of this set as an unmodifiable set of boxed indicies.
+	 * Changes to this set are visible through the view.
+	 *
+	 * @return view of this set as an unmodifiable set of boxed indicies
+	 */
+	public Set<Integer> asSet() {
+		return new AbstractSet<Integer>() {
+
+			@Override
+			public boolean contains(Object o) {
+				return (o instanceof Integer) && BitIndexSet.this.contains((Integer) o);
+			}
+
+			@Override
+			public Iterator<Integer> iterator() {
+				return new Iterator<Integer>() {
+
+					private int next = nextSetBit(0);
+
+					@Override
+					public boolean hasNext() {
+						return next >= 0;
+					}
+
+					@Override
+					public Integer next() {
+						if (next < 0) {
+							throw new NoSuchElementException();
+						}
+						int current = next;
+						next = nextSetBit(current + 1);
+						return current;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return cardinality();
+			}
+		};
+	}
+
+	/**
+	 * Returns count of indicies in this set
+	 *
+	 * @return count of indicies in this set
+	 */
+	public int cardinality() {
+		int count = 0;
+		for (long word : words) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0) {
+			throw new IndexOutOfBoundsException("Negative index: " + index);
+		}
+	}
+
+	/**
+	 * Removes all indicies from this set. Capacity is kept.
+	 *
+	 * @return current instance of BitIndexSet
+	 */
+	public BitIndexSet clear() {
+		Arrays.fill(words, 0);
+		return this;
+	}
+
+	/**
+	 * Returns true if this set contains the specified index, otherwise false
+	 *
+	 * @param index
+	 *            index to check
+	 * @return true if this set contains the specified index, otherwise false
+	 */
+	public boolean contains(int index) {
+		int w = index >>> 6;
+		return index >= 0 && w < words.length && (words[w] & (1L << index)) != 0;
+	}
+
+	/**
+	 * Replaces the contents of this set with the contents of the specified
+	 * set, reusing this set's words where possible
+	 *
+	 * @param other
+	 *            set to copy
+	 * @return current instance of BitIndexSet
+	 */
+	public BitIndexSet copyFrom(BitIndexSet other) {
+		ensureWords(other.words.length);
+		System.arraycopy(other.words, 0, words, 0, other.words.length);
+		Arrays.fill(words, other.words.length, words.length, 0);
+		return this;
+	}
+
+	private void ensureWords(int count) {
+		if (words.length < count) {
+			words = Arrays.copyOf(words, Math.max(count, words.length * 2));
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		BitIndexSet other = (BitIndexSet) obj;
+		int common = Math.min(words.length, other.words.length);
+		for (int w = 0; w < common; w++) {
+			if (words[w] != other.words[w]) {
+				return false;
+			}
+		}
+		return isZero(words, common) && isZero(other.words, common);
+	}
+
+	/**
+	 * Applies the specified action to each index in ascending order
+	 *
+	 * @param action
+	 *            action to apply
+	 */
+	public void forEach(IntConsumer action) {
+		for (int w = 0; w < words.length; w++) {
+			long word = words[w];
+			while (word != 0) {
+				action.accept((w << 6) + Long.numberOfTrailingZeros(word));
+				word &= word - 1;
+			}
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		long h = 1234;
+		for (int w = words.length; --w >= 0;) {
+			h ^= words[w] * (w + 1);
+		}
+		return (int) ((h >> 32) ^ h);
+	}
+
+	/**
+	 * Returns true if this set and the specified set have an index in common,
+	 * otherwise false
+	 *
+	 * @param other
+	 *            set to check
+	 * @return true if this set and the specified set have an index in common
+	 */
+	public boolean intersects(BitIndexSet other) {
+		int common = Math.min(words.length, other.words.length);
+		for (int w = 0; w < common; w++) {
+			if ((words[w] & other.words[w]) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns true if set is empty, otherwise false
+	 *
+	 * @return true if set is empty, otherwise false
+	 */
+	public boolean isEmpty() {
+		return isZero(words, 0);
+	}
+
+	/**
+	 * Returns true if each index of this set is contained in the specified
+	 * set, otherwise false
+	 *
+	 * @param other
+	 *            set to check against
+	 * @return true if this set is a subset of the specified set
+	 */
+	public boolean isSubsetOf(BitIndexSet other) {
+		int common = Math.min(words.length, other.words.length);
+		for (int w = 0; w < common; w++) {
+			if ((words[w] & ~other.words[w]) != 0) {
+				return false;
+			}
+		}
+		return isZero(words, common);
+	}
+
+	private static boolean isZero(long[] words, int from) {
+		for (int w = from; w < words.length; w++) {
+			if (words[w] != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the highest index of this set plus one, or 0 if this set is
+	 * empty
+	 *
+	 * @return the highest index plus one, or 0
+	 */
+	public int length() {
+		for (int w = words.length - 1; w >= 0; w--) {
+			if (words[w] != 0) {
+				return (w << 6) + 64 - Long.numberOfLeadingZeros(words[w]);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns the first index at or after the specified index, or -1 if there
+	 * is no such index
+	 *
+	 * @param from
+	 *            index to start from
+	 * @return the first index at or after the specified index, or -1
+	 */
+	public int nextSetBit(int from) {
+		if (from < 0) {
+			from = 0;
+		}
+		int w = from >>> 6;
+		if (w >= words.length) {
+			return -1;
+		}
+		long word = words[w] & (-1L << from);
+		while (true) {
+			if (word != 0) {
+				return (w << 6) + Long.numberOfTrailingZeros(word);
+			}
+			if (++w == words.length) {
+				return -1;
+			}
+			word = words[w];
+		}
+	}
+
+	/**
+	 * Adds the indicies of the specified set
+	 *
+	 * @param other
+	 *            set of indicies to add
+	 * @return current instance of BitIndexSet
+	 */
+	public BitIndexSet or(BitIndexSet other) {
+		ensureWords(other.words.length);
+		for (int w = 0; w < other.words.length; w++) {
+			words[w] |= other.words[w];
+		}
+		return this;
+	}
+
+	/**
+	 * Remove index from set
+	 *
+	 * @param index
+	 *            index to remove
+	 * @return true if the set contained the index
+	 */
+	public boolean remove(int index) {
+		if (!contains(index)) {
+			return false;
+		}
+		words[index >>> 6] &= ~(1L << index);
+		return true;
+	}
+
+	/**
+	 * Returns stream of the indicies in ascending order
+	 *
+	 * @return stream of the indicies in ascending order
+	 */
+	public IntStream stream() {
+		IntStream.Builder builder = IntStream.builder();
+		forEach(builder);
+		return builder.build();
+	}
+
+	/**
+	 * Returns the indicies in ascending order
+	 *
+	 * @return the indicies in ascending order
+	 */
+	public int[] toArray() {
+		int[] result = new int[cardinality()];
+		int[] count = { 0 };
+		forEach(i -> result[count[0]++] = i);
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return asSet().toString();
+	}
+
+	/**
+	 * Returns the backing words of this set. Index i is bit (i % 64) of word (i
+	 * / 64). The array may be longer than needed and may be replaced when the
+	 * set grows. Callers must not keep a reference across mutations.
+	 *
+	 * @return the backing words of this set
+	 */
+	public long[] words() {
+		return words;
+	}
+}
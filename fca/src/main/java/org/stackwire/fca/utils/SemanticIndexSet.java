@@ -17,7 +17,6 @@ package org.stackwire.fca.utils;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -29,15 +28,24 @@ import java.util.stream.Stream;
  */
 public class SemanticIndexSet {
 
-	protected final Set<Integer> indicies = new HashSet<>();
+	protected final BitIndexSet indicies;
 
 	public SemanticIndexSet() {
+		this.indicies = new BitIndexSet();
+	}
+
+	/**
+	 * Constructor for a copy of the specified set of indicies
+	 * 
+	 * @param indicies
+	 *            indicies to copy
+	 */
+	protected SemanticIndexSet(BitIndexSet indicies) {
+		this.indicies = (indicies == null) ? new BitIndexSet() : new BitIndexSet(indicies);
 	}
 
 	public SemanticIndexSet(Collection<Integer> indicies) {
-		if (indicies != null) {
-			this.indicies.addAll(indicies);
-		}
+		this.indicies = BitIndexSet.of(indicies);
 	}
 
 	/**
@@ -48,9 +56,7 @@ public class SemanticIndexSet {
 	 * @return current instance of SemanticIndexSet
 	 */
 	public final SemanticIndexSet addIndex(Integer index) {
-		if (!indicies.contains(index)) {
-			indicies.add(index);
-		}
+		indicies.add(index);
 		return this;
 	}
 
@@ -63,9 +69,7 @@ public class SemanticIndexSet {
 		if (getClass() != obj.getClass())
 			return false;
 		SemanticIndexSet other = (SemanticIndexSet) obj;
-		if (!indicies.containsAll(other.getIndicies()) || !other.getIndicies().containsAll(indicies))
-			return false;
-		return true;
+		return indicies.equals(other.indicies);
 	}
 
 	/**
@@ -77,7 +81,7 @@ public class SemanticIndexSet {
 	 * @return unmodifiable set of indicies that matches the specified predicate
 	 */
 	public final Set<Integer> filter(Predicate<Integer> predicate) {
-		return Collections.unmodifiableSet(indicies.stream().filter(predicate).collect(Collectors.toSet()));
+		return Collections.unmodifiableSet(stream().filter(predicate).collect(Collectors.toSet()));
 	}
 
 	/**
@@ -86,15 +90,30 @@ public class SemanticIndexSet {
 	 * @return
 	 */
 	public final Optional<Integer> first() {
-		return indicies.stream().findFirst();
+		int first = indicies.nextSetBit(0);
+		return (first < 0) ? Optional.empty() : Optional.of(first);
+	}
+
+	/**
+	 * Returns the backing bit set. Any direct changes will change this set.
+	 * 
+	 * @return the backing bit set
+	 */
+	public final BitIndexSet getBitSet() {
+		return indicies;
 	}
 
 	public final int getCount() {
-		return indicies.size();
+		return indicies.cardinality();
 	}
 
+	/**
+	 * Returns unmodifiable view of the indicies, in ascending order
+	 * 
+	 * @return unmodifiable view of the indicies
+	 */
 	public final Set<Integer> getIndicies() {
-		return Collections.unmodifiableSet(indicies);
+		return indicies.asSet();
 	}
 
 	@Override
@@ -132,15 +151,15 @@ public class SemanticIndexSet {
 	 * Only keep first element of indicies
 	 */
 	public final void keepFirst() {
-		Optional<Integer> first = first();
-		if (first.isPresent()) {
+		int first = indicies.nextSetBit(0);
+		if (first >= 0) {
 			indicies.clear();
-			indicies.add(first.get());
+			indicies.add(first);
 		}
 	}
 
 	public final Stream<Integer> stream() {
-		return indicies.stream();
+		return indicies.stream().boxed();
 	}
 
 	@Override
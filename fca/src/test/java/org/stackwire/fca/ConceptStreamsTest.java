@@ -0,0 +1,68 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.stackwire.fca.Concept.Extent;
+import org.stackwire.fca.Concept.Intent;
+import org.stackwire.fca.utils.BitIndexSet;
+
+public class ConceptStreamsTest {
+
+	/**
+	 * Returns a producer that passes concepts to its sink until the sink
+	 * refuses one, then counts down the specified latch
+	 */
+	private static Consumer<ConceptSink> endless(CountDownLatch stopped) {
+		Concept concept = new Concept.ConceptBuilder(new Extent(new BitIndexSet()), new Intent(new BitIndexSet()))
+				.build();
+		return sink -> {
+			while (sink.accept(concept)) {
+			}
+			stopped.countDown();
+		};
+	}
+
+	@Test
+	public void closeStopsProducer() throws Exception {
+		CountDownLatch stopped = new CountDownLatch(1);
+		try (Stream<Concept> stream = ConceptStreams.of(endless(stopped), 4)) {
+			assertEquals(3, stream.limit(3).count());
+		}
+		assertTrue(stopped.await(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void collectedStreamStopsProducer() throws Exception {
+		CountDownLatch stopped = new CountDownLatch(1);
+		Stream<Concept> stream = ConceptStreams.of(endless(stopped), 4);
+		stream.iterator().next();
+		stream = null;
+		for (int k = 0; k < 100 && stopped.getCount() > 0; k++) {
+			System.gc();
+			stopped.await(100, TimeUnit.MILLISECONDS);
+		}
+		assertEquals(0, stopped.getCount());
+	}
+}
@@ -15,11 +15,22 @@
  */
 package org.stackwire.fca;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 
 import org.junit.Test;
+import org.stackwire.fca.Concept.Extent;
+import org.stackwire.fca.Concept.Intent;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.relations.RelationStorage;
 
 public class ContextTest {
 
@@ -47,4 +58,130 @@ public class ContextTest {
 		assertTrue(Arrays.deepEquals(clarifiedRelations, clarifiedContext.getRelations()));
 
 	}
+
+	@Test
+	public void packedStorage() throws Exception {
+		double[][] relations = { { 1, 1, 1, 1 }, { 1, 0, 1, 1 }, { 0, 1, 1, 1 }, { 0, 1, 1, 1 }, { 1, 0, 0, 0 } };
+
+		Context fc = new Context.ContextBuilder(relations).storage(RelationStorage.PACKED).build();
+		assertEquals(RelationStorage.PACKED, fc.getRelationStorage());
+		assertTrue(fc.hasRelation(1, 0, 0));
+		assertFalse(fc.hasRelation(1, 1, 0));
+		assertFalse(fc.hasRelation(1, 0, 1));
+
+		fc.addRelation(1, 1);
+		assertTrue(fc.hasRelation(1, 1, 0));
+		fc.addRelation(1, 1, 0);
+		assertFalse(fc.hasRelation(1, 1, 0));
+		assertTrue(Arrays.deepEquals(relations, fc.getRelations()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void outOfBounds() throws Exception {
+		double[][] relations = { { 1, 1 }, { 1, 0 } };
+		Context fc = new Context.ContextBuilder(relations).storage(RelationStorage.PACKED).build();
+		fc.hasRelation(0, 2, 0);
+	}
+
+	@Test
+	public void binaryRelations() throws Exception {
+		double[][] relations = { { .2, .8 }, { .5, .6 } };
+
+		Context fc = new Context.ContextBuilder(relations).build();
+		BinaryRelations view = fc.getBinaryRelations(.5);
+		assertSame(view, fc.getBinaryRelations(.5));
+		assertFalse(view.hasRelation(0, 0));
+		assertTrue(view.hasRelation(0, 1));
+		assertFalse(view.hasRelation(1, 0));
+		assertTrue(fc.getBinaryRelations(.1).hasRelation(0, 0));
+
+		fc.addRelation(1, 0);
+		BinaryRelations refreshed = fc.getBinaryRelations(.5);
+		assertNotSame(view, refreshed);
+		assertTrue(refreshed.hasRelation(1, 0));
+		assertFalse(view.hasRelation(1, 0));
+	}
+
+	@Test
+	public void binaryRelationsSnapshot() throws Exception {
+		for (RelationStorage storage : RelationStorage.values()) {
+			double[][] relations = { { 1, 1 }, { 1, 0 } };
+			Context fc = new Context.ContextBuilder(relations).storage(storage).build();
+			BinaryRelations view = fc.getBinaryRelations(0);
+			fc.addRelation(1, 1);
+			assertFalse(view.hasRelation(1, 1));
+			assertTrue(fc.getBinaryRelations(0).hasRelation(1, 1));
+
+			view = fc.getBinaryRelations(0);
+			fc.addObject("x3", Arrays.asList(0));
+			fc.addRelation(0, 1, 0);
+			assertEquals(2, view.objectCount());
+			assertTrue(view.hasRelation(0, 1));
+			assertFalse(fc.getBinaryRelations(0).hasRelation(0, 1));
+			assertEquals(3, fc.getBinaryRelations(0).objectCount());
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void binaryRelationsReadOnly() throws Exception {
+		double[][] relations = { { 1, 1 }, { 1, 0 } };
+		Context fc = new Context.ContextBuilder(relations).storage(RelationStorage.PACKED).build();
+		fc.getBinaryRelations(0).addRelation(1, 1);
+	}
+
+	@Test
+	public void sparseStorage() throws Exception {
+		double[][] relations = { { 1, 1, 1, 1 }, { 1, 0, 1, 1 }, { 0, 1, 1, 1 }, { 0, 1, 1, 1 }, { 1, 0, 0, 0 } };
+
+		Context fc = new Context.ContextBuilder(relations).storage(RelationStorage.SPARSE).build();
+		assertEquals(RelationStorage.SPARSE, fc.getRelationStorage());
+		assertFalse(fc.hasRelation(4, 1, 0));
+		fc.addRelation(4, 1);
+		assertTrue(fc.getBinaryRelations(0).hasRelation(4, 1));
+		assertFalse(fc.getBinaryRelations(1).hasRelation(4, 1));
+
+		Context clarifiedContext = fc.clarify();
+		assertEquals(RelationStorage.SPARSE, clarifiedContext.getRelationStorage());
+	}
+
+	@Test
+	public void addConcept() throws Exception {
+		Context fc = new Context.ContextBuilder(2, 2).build();
+		Concept concept = Concept.newSupremum(1);
+		assertTrue(fc.addConcept(concept));
+		assertFalse(fc.addConcept(Concept.newSupremum(1)));
+		assertFalse(fc.addConcept(new Concept.ConceptBuilder(new Extent(), new Intent())
+				.conceptType(ConceptType.UNKNOWN).build()));
+
+		assertTrue(fc.hasConceptOf(concept.getExtent(), ConceptType.FORMAL_CONCEPT));
+		assertTrue(fc.hasConceptOf(concept.getIntent(), ConceptType.FORMAL_CONCEPT));
+		assertFalse(fc.hasConceptOf(concept.getIntent(), ConceptType.SEMICONCEPT));
+		assertEquals(1, fc.getConceptOf(concept.getExtent(), ConceptType.FORMAL_CONCEPT).size());
+		assertEquals(1, fc.getConceptsOf(ConceptType.FORMAL_CONCEPT).get().size());
+	}
+
+	@Test
+	public void conceptViews() throws Exception {
+		Context fc = new Context.ContextBuilder(2, 2).build();
+		Collection<Concept> view = fc.viewOf(ConceptType.FORMAL_CONCEPT);
+		assertTrue(view.isEmpty());
+
+		Concept concept = Concept.newSupremum(1);
+		fc.addConcept(concept);
+		assertEquals(1, view.size());
+		assertEquals(1, fc.countOf(ConceptType.FORMAL_CONCEPT));
+		assertEquals(0, fc.countOf(ConceptType.UNKNOWN));
+		assertTrue(fc.viewOf(ConceptType.UNKNOWN).isEmpty());
+		assertSame(concept, fc.streamOf(ConceptType.FORMAL_CONCEPT).findFirst().get());
+
+		List<Concept> visited = new ArrayList<>();
+		fc.forEachOf(ConceptType.FORMAL_CONCEPT, visited::add);
+		assertEquals(Arrays.asList(concept), visited);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void conceptViewsReadOnly() throws Exception {
+		Context fc = new Context.ContextBuilder(2, 2).build();
+		fc.viewOf(ConceptType.FORMAL_CONCEPT).add(Concept.newSupremum(1));
+	}
 }
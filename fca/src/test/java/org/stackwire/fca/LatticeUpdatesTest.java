@@ -0,0 +1,195 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.stackwire.fca.test.ContextTestFactory.randomRelations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.stackwire.fca.generators.InCloseConceptGenerator;
+import org.stackwire.fca.generators.NextNeighborsConceptGenerator;
+import org.stackwire.fca.relations.RelationStorage;
+import org.stackwire.fca.stores.ConceptStorage;
+import org.stackwire.fca.tags.IndexTag;
+import org.stackwire.fca.test.ContextTestFactory;
+
+public class LatticeUpdatesTest {
+
+	private static List<Integer> attributesOf(double[] row) {
+		List<Integer> attributes = new ArrayList<>();
+		for (int j = 0; j < row.length; j++) {
+			if (row[j] > 0) {
+				attributes.add(j);
+			}
+		}
+		return attributes;
+	}
+
+	/**
+	 * Returns the upper covers of each concept of the lattice as concepts
+	 */
+	private static Map<Concept, Set<Concept>> coversOf(ConceptLattice lattice) {
+		Map<Concept, Set<Concept>> covers = new HashMap<>();
+		for (int i = 0; i < lattice.size(); i++) {
+			Set<Concept> upper = new HashSet<>();
+			for (int j : lattice.getUpperCovers(i)) {
+				upper.add(lattice.getConcept(j));
+			}
+			covers.put(lattice.getConcept(i), upper);
+		}
+		return covers;
+	}
+
+	/**
+	 * Asserts that the index tags of the formal concepts are distinct
+	 */
+	private static void assertDistinctTags(Context context) {
+		Set<Integer> tags = new HashSet<>();
+		context.forEachOf(ConceptType.FORMAL_CONCEPT,
+				concept -> assertTrue(tags.add(((IndexTag) concept.getConceptTag()).getIndex())));
+	}
+
+	private static Context build(double[][] relations, RelationStorage relationStorage,
+			ConceptStorage conceptStorage) {
+		return new Context.ContextBuilder(relations).storage(relationStorage).conceptStorage(conceptStorage)
+				.build();
+	}
+
+	@Test
+	public void addObjectWithLattice() throws Exception {
+		Random random = new Random(11);
+		for (RelationStorage relationStorage : RelationStorage.values()) {
+			for (ConceptStorage conceptStorage : ConceptStorage.values()) {
+				double[][] relations = randomRelations(random, 14, 9);
+				Context context = new NextNeighborsConceptGenerator().generateConceptsFor(
+						build(Arrays.copyOf(relations, 1), relationStorage, conceptStorage), 0);
+				for (int i = 1; i < relations.length; i++) {
+					assertEquals(i, context.addObject("x" + (i + 1), attributesOf(relations[i])));
+				}
+
+				Context expected = new NextNeighborsConceptGenerator()
+						.generateConceptsFor(build(relations, relationStorage, conceptStorage), 0);
+				assertEquals(new HashSet<>(expected.viewOf(ConceptType.FORMAL_CONCEPT)),
+						new HashSet<>(context.viewOf(ConceptType.FORMAL_CONCEPT)));
+				ConceptLattice lattice = context.getConceptLattice().get();
+				assertEquals(context.countOf(ConceptType.FORMAL_CONCEPT), lattice.size());
+				assertEquals(coversOf(expected.getConceptLattice().get()), coversOf(lattice));
+				assertEquals(Arrays.deepToString(relations), Arrays.deepToString(context.getRelations()));
+			}
+		}
+	}
+
+	@Test
+	public void addObjectWithoutLattice() throws Exception {
+		Random random = new Random(5);
+		for (int n = 0; n < 5; n++) {
+			double[][] relations = randomRelations(random, 12, 8);
+			Context context = new InCloseConceptGenerator()
+					.generateConceptsFor(new Context.ContextBuilder(Arrays.copyOf(relations, 1)).build(), 0);
+			for (int i = 1; i < relations.length; i++) {
+				context.addObject("x" + (i + 1), attributesOf(relations[i]));
+			}
+
+			Context expected = new InCloseConceptGenerator()
+					.generateConceptsFor(new Context.ContextBuilder(relations).build(), 0);
+			assertEquals(new HashSet<>(expected.viewOf(ConceptType.FORMAL_CONCEPT)),
+					new HashSet<>(context.viewOf(ConceptType.FORMAL_CONCEPT)));
+			assertEquals(relations.length, context.objectCount());
+		}
+	}
+
+	@Test
+	public void removeWithLattice() throws Exception {
+		Random random = new Random(17);
+		for (RelationStorage relationStorage : RelationStorage.values()) {
+			for (ConceptStorage conceptStorage : ConceptStorage.values()) {
+				double[][] relations = randomRelations(random, 14, 9);
+				Context context = new NextNeighborsConceptGenerator()
+						.generateConceptsFor(build(relations, relationStorage, conceptStorage), 0);
+				while (context.objectCount() > 2 && context.attributeCount() > 2) {
+					int object = random.nextInt(context.objectCount());
+					int attribute = random.nextInt(context.attributeCount());
+					context.removeObject(object);
+					relations = ContextTestFactory.without(relations, object, -1);
+					if (random.nextBoolean()) {
+						context.removeAttribute(attribute);
+						relations = ContextTestFactory.without(relations, -1, attribute);
+					}
+
+					Context expected = new NextNeighborsConceptGenerator()
+							.generateConceptsFor(build(relations, relationStorage, conceptStorage), 0);
+					assertEquals(new HashSet<>(expected.viewOf(ConceptType.FORMAL_CONCEPT)),
+							new HashSet<>(context.viewOf(ConceptType.FORMAL_CONCEPT)));
+					assertEquals(coversOf(expected.getConceptLattice().get()),
+							coversOf(context.getConceptLattice().get()));
+					assertEquals(Arrays.deepToString(relations), Arrays.deepToString(context.getRelations()));
+					ConceptLattice lattice = context.getConceptLattice().get();
+					for (int c = 0; c < lattice.size(); c++) {
+						assertEquals(c, ((IndexTag) lattice.getConcept(c).getConceptTag()).getIndex());
+					}
+					context.addObject("y", attributesOf(relations[0]));
+					relations = Arrays.copyOf(relations, relations.length + 1);
+					relations[relations.length - 1] = relations[0];
+					assertDistinctTags(context);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void removeWithoutLattice() throws Exception {
+		Random random = new Random(23);
+		double[][] relations = randomRelations(random, 12, 8);
+		Context context = new InCloseConceptGenerator()
+				.generateConceptsFor(new Context.ContextBuilder(relations).build(), 0);
+		context.addConcept(new Concept.ConceptBuilder(new Concept.Extent(Arrays.asList(0)),
+				new Concept.Intent(Arrays.asList(0))).conceptType(ConceptType.PRECONCEPT).build());
+		context.removeAttribute(3);
+		context.removeObject(5);
+		context.removeObject(0);
+		relations = ContextTestFactory.without(relations, -1, 3);
+		relations = ContextTestFactory.without(relations, 5, -1);
+		relations = ContextTestFactory.without(relations, 0, -1);
+
+		Context expected = new InCloseConceptGenerator()
+				.generateConceptsFor(new Context.ContextBuilder(relations).build(), 0);
+		assertEquals(new HashSet<>(expected.viewOf(ConceptType.FORMAL_CONCEPT)),
+				new HashSet<>(context.viewOf(ConceptType.FORMAL_CONCEPT)));
+		assertEquals(0, context.countOf(ConceptType.PRECONCEPT));
+		assertEquals(Arrays.asList("x2", "x3", "x4", "x5", "x7", "x8", "x9", "x10", "x11", "x12"),
+				context.getObjectNames());
+		assertEquals(7, context.attributeCount());
+		assertDistinctTags(context);
+		context.addObject("x13", Arrays.asList(0, 2));
+		context.addObject("x14", Arrays.asList(1));
+		assertDistinctTags(context);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void addObjectOutOfBounds() throws Exception {
+		new Context.ContextBuilder(new double[][] { { 1, 0 } }).build().addObject("x2", Arrays.asList(2));
+	}
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.functions;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.stackwire.fca.test.ContextTestFactory.randomRelations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+import org.stackwire.fca.ConceptType;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.relations.PackedRelations;
+import org.stackwire.fca.utils.BitIndexSet;
+
+public class ConceptClassifierTest {
+
+	/**
+	 * Returns the concept type from derivations into hash sets
+	 */
+	private static ConceptType expected(BinaryRelations relations, BitIndexSet extent, BitIndexSet intent) {
+		Set<Integer> aOpr = new AttributesCommonToObjectsFunction(relations).apply(extent.asSet());
+		Set<Integer> bOpr = new ObjectsCommonToAttributesFunction(relations).apply(intent.asSet());
+		boolean bContainsAOpr = intent.asSet().containsAll(aOpr);
+		boolean aContainsBOpr = extent.asSet().containsAll(bOpr);
+		boolean x = aOpr.containsAll(intent.asSet()) && bContainsAOpr;
+		boolean y = bOpr.containsAll(extent.asSet()) && aContainsBOpr;
+		if (x && y) {
+			return ConceptType.FORMAL_CONCEPT;
+		} else if (x || y) {
+			return ConceptType.SEMICONCEPT;
+		} else if (bOpr.containsAll(extent.asSet())) {
+			return ConceptType.PRECONCEPT;
+		}
+		return ConceptType.UNKNOWN;
+	}
+
+	private static BitIndexSet randomSet(Random random, int size, int bound) {
+		BitIndexSet set = new BitIndexSet(size);
+		for (int i = 0; i < size; i++) {
+			if (random.nextInt(bound) == 0) {
+				set.add(i);
+			}
+		}
+		return set;
+	}
+
+	@Test
+	public void classify() throws Exception {
+		Random random = new Random(31);
+		double[][] table = randomRelations(random, 9, 5, 0.75);
+		BinaryRelations relations = PackedRelations.of(table, 0);
+		List<BitIndexSet> extents = new ArrayList<>();
+		List<BitIndexSet> intents = new ArrayList<>();
+		ConceptType[] expected = new ConceptType[5000];
+		Set<ConceptType> seen = EnumSet.noneOf(ConceptType.class);
+		for (int k = 0; k < expected.length; k++) {
+			extents.add(randomSet(random, 9, 1 + k % 4));
+			intents.add(randomSet(random, 5, 1 + k % 3));
+			expected[k] = expected(relations, extents.get(k), intents.get(k));
+			seen.add(expected[k]);
+		}
+		assertEquals(EnumSet.allOf(ConceptType.class), seen);
+
+		ConceptClassifier classifier = new ConceptClassifier(relations, ForkJoinPool.commonPool(), 37);
+		assertArrayEquals(expected, classifier.classify(extents, intents));
+		for (int k = 0; k < 100; k++) {
+			assertEquals(expected[k], classifier.classify(extents.get(k), intents.get(k)));
+		}
+	}
+
+	/**
+	 * Pairs of a three object context with known types. ({0}, {0}) is a
+	 * preconcept since {0} is a subset of {0}' = {0, 1}, though {0}' = {0, 1}
+	 * is not a subset of {0}. ({0, 2}, {1, 2}) has {0, 2}' = {1} and {1, 2}' =
+	 * {2} contained in the other side, but object 0 lacks attribute 2, so it
+	 * is not a preconcept.
+	 */
+	@Test
+	public void classifyFixture() throws Exception {
+		BinaryRelations relations = PackedRelations.of(new double[][] { { 1, 1, 0 }, { 1, 1, 0 }, { 0, 1, 1 } }, 0);
+		ConceptClassifier classifier = new ConceptClassifier(relations);
+		assertEquals(ConceptType.FORMAL_CONCEPT, classifier.classify(BitIndexSet.of(Arrays.asList(0, 1)),
+				BitIndexSet.of(Arrays.asList(0, 1))));
+		assertEquals(ConceptType.SEMICONCEPT,
+				classifier.classify(BitIndexSet.of(Arrays.asList(0)), BitIndexSet.of(Arrays.asList(0, 1))));
+		assertEquals(ConceptType.SEMICONCEPT,
+				classifier.classify(BitIndexSet.of(Arrays.asList(0, 1, 2)), new BitIndexSet()));
+		assertEquals(ConceptType.PRECONCEPT,
+				classifier.classify(BitIndexSet.of(Arrays.asList(0)), BitIndexSet.of(Arrays.asList(0))));
+		assertEquals(ConceptType.PRECONCEPT,
+				classifier.classify(BitIndexSet.of(Arrays.asList(2)), BitIndexSet.of(Arrays.asList(1))));
+		assertEquals(ConceptType.UNKNOWN, classifier.classify(BitIndexSet.of(Arrays.asList(0, 2)),
+				BitIndexSet.of(Arrays.asList(1, 2))));
+		assertEquals(ConceptType.UNKNOWN, ConceptClassifier.classify(relations, BitIndexSet.of(Arrays.asList(0, 2)),
+				BitIndexSet.of(Arrays.asList(1, 2))));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void classifyMismatched() throws Exception {
+		new ConceptClassifier(PackedRelations.of(new double[][] { { 1 } }, 0))
+				.classify(new ArrayList<>(), Collections.singletonList(new BitIndexSet()));
+	}
+}
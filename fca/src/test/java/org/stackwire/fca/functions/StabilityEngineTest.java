@@ -0,0 +1,109 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.functions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.stackwire.fca.test.ContextTestFactory.randomRelations;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.ConceptType;
+import org.stackwire.fca.Context;
+import org.stackwire.fca.functions.StabilityEngine.Method;
+import org.stackwire.fca.functions.StabilityEngine.Stability;
+import org.stackwire.fca.generators.InCloseConceptGenerator;
+import org.stackwire.fca.generators.NextNeighborsConceptGenerator;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.utils.BitIndexSet;
+
+public class StabilityEngineTest {
+
+	/**
+	 * Returns stability by testing every subset of the extent
+	 */
+	private static double naive(BinaryRelations relations, Concept concept) {
+		int[] objects = concept.getExtent().getBitSet().toArray();
+		Derivation derivation = new Derivation(relations);
+		int count = 0;
+		for (int mask = 0; mask < 1 << objects.length; mask++) {
+			BitIndexSet subset = new BitIndexSet(relations.objectCount());
+			for (int k = 0; k < objects.length; k++) {
+				if ((mask & (1 << k)) != 0) {
+					subset.add(objects[k]);
+				}
+			}
+			if (derivation.attributesCommonTo(subset, new BitIndexSet(relations.attributeCount()))
+					.equals(concept.getIntent().getBitSet())) {
+				count++;
+			}
+		}
+		return (double) count / (1 << objects.length);
+	}
+
+	@Test
+	public void exact() throws Exception {
+		double[][] relations = randomRelations(new Random(43), 10, 6);
+		Context context = new InCloseConceptGenerator()
+				.generateConceptsFor(new Context.ContextBuilder(relations).build(), 0);
+		Map<Concept, Stability> stabilities = new StabilityEngine().stabilityOf(context, 0);
+		assertEquals(context.countOf(ConceptType.FORMAL_CONCEPT), stabilities.size());
+		for (Map.Entry<Concept, Stability> entry : stabilities.entrySet()) {
+			assertEquals(Method.EXACT, entry.getValue().getMethod());
+			assertEquals(naive(context.getBinaryRelations(0), entry.getKey()), entry.getValue().getValue(), 1e-12);
+		}
+	}
+
+	@Test
+	public void recurrence() throws Exception {
+		double[][] relations = randomRelations(new Random(47), 24, 10);
+		Context exact = new InCloseConceptGenerator().generateConceptsFor(new Context.ContextBuilder(relations).build(),
+				0);
+		Map<Concept, Stability> expected = new StabilityEngine(ForkJoinPool.commonPool(), 30, 0.01, 0.95, 0)
+				.stabilityOf(exact, 0);
+		Context lattice = new NextNeighborsConceptGenerator()
+				.generateConceptsFor(new Context.ContextBuilder(relations).build(), 0);
+		Map<Concept, Stability> actual = new StabilityEngine().stabilityOf(lattice, 0);
+		assertEquals(expected.keySet(), actual.keySet());
+		for (Map.Entry<Concept, Stability> entry : actual.entrySet()) {
+			assertEquals(Method.RECURRENCE, entry.getValue().getMethod());
+			assertEquals(expected.get(entry.getKey()).getValue(), entry.getValue().getValue(), 1e-12);
+		}
+	}
+
+	@Test
+	public void monteCarlo() throws Exception {
+		double[][] relations = randomRelations(new Random(53), 16, 6);
+		Context context = new InCloseConceptGenerator()
+				.generateConceptsFor(new Context.ContextBuilder(relations).build(), 0);
+		Map<Concept, Stability> expected = new StabilityEngine().stabilityOf(context, 0);
+		Map<Concept, Stability> estimated = new StabilityEngine(ForkJoinPool.commonPool(), 2, 0.02, 0.999999, 7)
+				.stabilityOf(context, 0);
+		for (Map.Entry<Concept, Stability> entry : estimated.entrySet()) {
+			Stability stability = entry.getValue();
+			if (entry.getKey().getExtent().getBitSet().cardinality() > 2) {
+				assertEquals(Method.MONTE_CARLO, stability.getMethod());
+				assertEquals(0.02, stability.getError(), 0);
+			}
+			assertTrue(Math.abs(expected.get(entry.getKey()).getValue() - stability.getValue()) <= stability
+					.getError());
+		}
+	}
+}
@@ -3,9 +3,14 @@ package org.stackwire.fca.generators;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.Test;
 import org.stackwire.fca.Concept;
@@ -14,15 +19,48 @@ import org.stackwire.fca.Concept.Intent;
 import org.stackwire.fca.ConceptGenerator;
 import org.stackwire.fca.ConceptType;
 import org.stackwire.fca.Context;
+import org.stackwire.fca.relations.RelationStorage;
+import org.stackwire.fca.stores.ConceptStorage;
 
 public abstract class BaseConceptGeneratorTest {
 
 	private static final double[][] relations = { { 0, 0, 0, 0 }, { 1, 1, 1, 1 }, { 0, 1, 1, 0 }, { 1, 1, 1, 1 },
 			{ 0, 0, 0, 0 }, { 0, 1, 0, 0 } };
 
+	/**
+	 * Asserts that the specified generator finds the same formal concepts as
+	 * the specified oracle for the specified relations
+	 * 
+	 * @return context generated by the generator
+	 */
+	static Context assertSameFormalConcepts(ConceptGenerator oracle, ConceptGenerator generator,
+			double[][] relations) {
+		Set<Concept> expected = new HashSet<>(contextOf(oracle, relations).viewOf(ConceptType.FORMAL_CONCEPT));
+		Context actual = contextOf(generator, relations);
+		assertEquals(expected.size(), actual.countOf(ConceptType.FORMAL_CONCEPT));
+		assertEquals(expected, new HashSet<>(actual.viewOf(ConceptType.FORMAL_CONCEPT)));
+		return actual;
+	}
+
+	/**
+	 * Returns a context of the specified relations with the concepts of the
+	 * specified generator
+	 */
+	static Context contextOf(ConceptGenerator generator, double[][] relations) {
+		return generator.generateConceptsFor(new Context.ContextBuilder(relations).build(), 0);
+	}
+
 	@Test
 	public void generate() throws Exception {
-		Context fc = new Context.ContextBuilder(relations).build();
+		for (RelationStorage storage : RelationStorage.values()) {
+			for (ConceptStorage conceptStorage : ConceptStorage.values()) {
+				generate(storage, conceptStorage);
+			}
+		}
+	}
+
+	private void generate(RelationStorage storage, ConceptStorage conceptStorage) throws Exception {
+		Context fc = new Context.ContextBuilder(relations).storage(storage).conceptStorage(conceptStorage).build();
 		
 		ConceptGenerator generator = getGenerator();
 		generator.generateConceptsFor(fc, 0);
@@ -42,6 +80,41 @@ public abstract class BaseConceptGeneratorTest {
 		assertTrue(result.containsAll(expectedConcepts));
 	}
 
+	@Test
+	public void noObjects() throws Exception {
+		for (RelationStorage storage : new RelationStorage[] { RelationStorage.PACKED, RelationStorage.SPARSE }) {
+			Context fc = getGenerator()
+					.generateConceptsFor(new Context.ContextBuilder(0, 3).storage(storage).build(), 0);
+			assertEquals(
+					Arrays.asList(new Concept.ConceptBuilder(new Extent(Arrays.asList()),
+							new Intent(Arrays.asList(0, 1, 2))).build()),
+					new ArrayList<>(fc.viewOf(ConceptType.FORMAL_CONCEPT)));
+		}
+	}
+
+	@Test
+	public void sink() throws Exception {
+		List<Concept> accepted = new ArrayList<>();
+		getGenerator().generateConceptsFor(new Context.ContextBuilder(relations).build(), 0, concept -> {
+			accepted.add(concept);
+			return accepted.size() < 2;
+		});
+		assertEquals(2, accepted.size());
+	}
+
+	@Test
+	public void stream() throws Exception {
+		Set<Concept> expected = new HashSet<>(getGenerator()
+				.generateConceptsFor(new Context.ContextBuilder(relations).build(), 0)
+				.viewOf(ConceptType.FORMAL_CONCEPT));
+		try (Stream<Concept> stream = getGenerator().stream(new Context.ContextBuilder(relations).build(), 0)) {
+			assertEquals(expected, stream.collect(Collectors.toSet()));
+		}
+		try (Stream<Concept> stream = getGenerator().stream(new Context.ContextBuilder(relations).build(), 0)) {
+			assertEquals(1, stream.limit(1).count());
+		}
+	}
+
 	protected abstract ConceptGenerator getGenerator();
 
 }
@@ -0,0 +1,46 @@
+package org.stackwire.fca.generators;
+
+import static org.junit.Assert.assertEquals;
+import static org.stackwire.fca.generators.BaseConceptGeneratorTest.contextOf;
+import static org.stackwire.fca.test.ContextTestFactory.randomRelations;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.ConceptLattice;
+import org.stackwire.fca.ConceptType;
+import org.stackwire.fca.Context;
+
+public class ConceptsCoverConceptGeneratorTest {
+
+	@Test
+	public void covers() throws Exception {
+		Random random = new Random(5);
+		for (int n = 0; n < 10; n++) {
+			double[][] relations = randomRelations(random, 14, 9);
+			Context fc = contextOf(new InCloseConceptGenerator(), relations);
+			new ConceptsCoverConceptGenerator().generateConceptsFor(fc, 0);
+			ConceptLattice lattice = fc.getConceptLattice().get();
+			assertEquals(fc.countOf(ConceptType.FORMAL_CONCEPT), lattice.size());
+			NextNeighborsConceptGeneratorTest.assertCovers(lattice);
+
+			Context nextNeighbors = contextOf(new NextNeighborsConceptGenerator(), relations);
+			assertEquals(nextNeighbors.getConceptLattice().get().edgeCount(), lattice.edgeCount());
+		}
+	}
+
+	@Test
+	public void iceberg() throws Exception {
+		double[][] relations = randomRelations(new Random(9), 14, 9);
+		Context full = contextOf(new InCloseConceptGenerator(), relations);
+		Context iceberg = new Context.ContextBuilder(relations).build();
+		for (Concept concept : full.viewOf(ConceptType.FORMAL_CONCEPT)) {
+			if (concept.getExtent().getIndicies().size() >= 4) {
+				iceberg.addConcept(concept);
+			}
+		}
+		new ConceptsCoverConceptGenerator().generateConceptsFor(iceberg, 0);
+		NextNeighborsConceptGeneratorTest.assertCovers(iceberg.getConceptLattice().get());
+	}
+}
@@ -0,0 +1,25 @@
+package org.stackwire.fca.generators;
+
+import static org.stackwire.fca.test.ContextTestFactory.randomRelations;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.stackwire.fca.ConceptGenerator;
+
+public class FastCloseByOneConceptGeneratorTest extends BaseConceptGeneratorTest {
+
+	@Override
+	protected ConceptGenerator getGenerator() {
+		return new FastCloseByOneConceptGenerator();
+	}
+
+	@Test
+	public void matchesNaive() throws Exception {
+		Random random = new Random(17);
+		for (int n = 0; n < 20; n++) {
+			double[][] relations = randomRelations(random, 9, 30);
+			assertSameFormalConcepts(new NaiveConceptGenerator(), getGenerator(), relations);
+		}
+	}
+}
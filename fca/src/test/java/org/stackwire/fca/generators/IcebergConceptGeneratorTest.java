@@ -0,0 +1,45 @@
+package org.stackwire.fca.generators;
+
+import static org.junit.Assert.assertEquals;
+import static org.stackwire.fca.test.ContextTestFactory.randomRelations;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.ConceptGenerator;
+import org.stackwire.fca.ConceptType;
+import org.stackwire.fca.Context;
+
+public class IcebergConceptGeneratorTest extends BaseConceptGeneratorTest {
+
+	@Override
+	protected ConceptGenerator getGenerator() {
+		return new IcebergConceptGenerator(0);
+	}
+
+	@Test
+	public void iceberg() throws Exception {
+		Random random = new Random(29);
+		double[][] relations = randomRelations(random, 40, 12, 0.3);
+		Context full = contextOf(new InCloseConceptGenerator(), relations);
+		for (double minSupport : new double[] { 0, 0.05, 0.1, 0.25, 0.5, 1 }) {
+			IcebergConceptGenerator generator = new IcebergConceptGenerator(minSupport);
+			Set<Concept> expected = new HashSet<>();
+			for (Concept concept : full.viewOf(ConceptType.FORMAL_CONCEPT)) {
+				if (concept.getExtent().getIndicies().size() >= generator.minCount(relations.length)) {
+					expected.add(concept);
+				}
+			}
+			Context iceberg = generator.generateConceptsFor(new Context.ContextBuilder(relations).build(), 0);
+			assertEquals(expected, new HashSet<>(iceberg.viewOf(ConceptType.FORMAL_CONCEPT)));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void supportOutOfRange() throws Exception {
+		new IcebergConceptGenerator(1.5);
+	}
+}
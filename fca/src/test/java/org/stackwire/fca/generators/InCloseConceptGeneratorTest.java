@@ -15,6 +15,11 @@
  */
 package org.stackwire.fca.generators;
 
+import static org.stackwire.fca.test.ContextTestFactory.randomRelations;
+
+import java.util.Random;
+
+import org.junit.Test;
 import org.stackwire.fca.ConceptGenerator;
 
 public class InCloseConceptGeneratorTest extends BaseConceptGeneratorTest {
@@ -23,4 +28,13 @@ public class InCloseConceptGeneratorTest extends BaseConceptGeneratorTest {
 	protected ConceptGenerator getGenerator() {
 		return new InCloseConceptGenerator();
 	}
+
+	@Test
+	public void matchesNaive() throws Exception {
+		Random random = new Random(7);
+		for (int n = 0; n < 20; n++) {
+			double[][] relations = randomRelations(random, 9, 70, 0.3);
+			assertSameFormalConcepts(new NaiveConceptGenerator(), getGenerator(), relations);
+		}
+	}
 }
@@ -15,10 +15,31 @@
  */
 package org.stackwire.fca.generators;
 
+import static org.junit.Assert.assertEquals;
+import static org.stackwire.fca.test.ContextTestFactory.randomRelations;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
 import org.stackwire.fca.ConceptGenerator;
+import org.stackwire.fca.ConceptType;
+import org.stackwire.fca.Context;
 
 public class NaiveConceptGeneratorTest extends BaseConceptGeneratorTest  {
 
+	@Test
+	public void powerSet() throws Exception {
+		Random random = new Random(29);
+		double[][] relations = randomRelations(random, 11, 6);
+		for (int splitBits : new int[] { 0, 3, 11, 20 }) {
+			Context context = assertSameFormalConcepts(new InCloseConceptGenerator(),
+					new NaiveConceptGenerator(ForkJoinPool.commonPool(), splitBits), relations);
+			assertEquals(1 << relations.length,
+					context.countOf(ConceptType.FORMAL_CONCEPT) + context.countOf(ConceptType.SEMICONCEPT));
+		}
+	}
+
 	@Override
 	protected ConceptGenerator getGenerator() {
 		return new NaiveConceptGenerator();
@@ -0,0 +1,119 @@
+package org.stackwire.fca.generators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.stackwire.fca.test.ContextTestFactory.randomRelations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.ConceptGenerator;
+import org.stackwire.fca.ConceptType;
+import org.stackwire.fca.Context;
+import org.stackwire.fca.relations.PackedRelations;
+import org.stackwire.fca.utils.BitIndexSet;
+
+public class NextClosureConceptGeneratorTest extends BaseConceptGeneratorTest {
+
+	/**
+	 * Returns true if a is lectically smaller than b: the smallest attribute
+	 * in which they differ is in b
+	 */
+	private static boolean lecticallySmaller(BitIndexSet a, BitIndexSet b) {
+		BitIndexSet difference = new BitIndexSet(a).andNot(b).or(new BitIndexSet(b).andNot(a));
+		int first = difference.nextSetBit(0);
+		return first >= 0 && b.contains(first);
+	}
+
+	@Override
+	protected ConceptGenerator getGenerator() {
+		return new NextClosureConceptGenerator();
+	}
+
+	@Test
+	public void lecticOrder() throws Exception {
+		Random random = new Random(13);
+		for (int n = 0; n < 10; n++) {
+			double[][] relations = randomRelations(random, 15, 12, 0.3);
+			NextClosure cursor = new NextClosure(PackedRelations.of(relations, 0));
+			List<BitIndexSet> intents = new ArrayList<>();
+			while (cursor.next()) {
+				intents.add(new BitIndexSet(cursor.intent()));
+			}
+			assertFalse(cursor.next());
+			for (int k = 1; k < intents.size(); k++) {
+				assertTrue(lecticallySmaller(intents.get(k - 1), intents.get(k)));
+			}
+
+			Context actual = assertSameFormalConcepts(new InCloseConceptGenerator(), getGenerator(), relations);
+			assertEquals(intents.size(), actual.countOf(ConceptType.FORMAL_CONCEPT));
+		}
+	}
+
+	@Test
+	public void resume() throws Exception {
+		Random random = new Random(23);
+		double[][] relations = randomRelations(random, 20, 10);
+		List<Concept> all = new ArrayList<>();
+		List<byte[]> checkpoints = new ArrayList<>();
+		new NextClosureConceptGenerator().checkpoint(7, 0, checkpoint -> {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try {
+				checkpoint.writeTo(new DataOutputStream(bytes));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			checkpoints.add(bytes.toByteArray());
+		}).generateConceptsFor(new Context.ContextBuilder(relations).build(), 0, all::add);
+		assertEquals(all.size() / 7, checkpoints.size());
+
+		Checkpoint checkpoint = Checkpoint
+				.readFrom(new DataInputStream(new ByteArrayInputStream(checkpoints.get(checkpoints.size() / 2))),
+						relations[0].length);
+		List<Concept> remaining = new ArrayList<>();
+		new NextClosureConceptGenerator().resumeFrom(checkpoint)
+				.generateConceptsFor(new Context.ContextBuilder(relations).build(), 0, remaining::add);
+		assertEquals(all.subList((int) checkpoint.getPosition(), all.size()), remaining);
+	}
+
+	/**
+	 * Returns a checkpoint at position 1 with the specified intent words
+	 */
+	private static DataInputStream checkpointOf(int length, long... words) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeLong(1);
+		out.writeInt(length);
+		for (long word : words) {
+			out.writeLong(word);
+		}
+		return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+	}
+
+	@Test
+	public void readCorruptCheckpoint() throws Exception {
+		assertEquals(BitIndexSet.of(Arrays.asList(0, 69)),
+				Checkpoint.readFrom(checkpointOf(2, 1L, 1L << 5), 70).getIntent());
+		for (DataInputStream in : Arrays.asList(checkpointOf(Integer.MAX_VALUE), checkpointOf(3, 1L, 1L, 1L),
+				checkpointOf(2, 1L, 1L << 6), checkpointOf(-1))) {
+			try {
+				Checkpoint.readFrom(in, 70);
+				fail("Corrupt checkpoint was read");
+			} catch (IOException e) {
+				// expected
+			}
+		}
+	}
+}
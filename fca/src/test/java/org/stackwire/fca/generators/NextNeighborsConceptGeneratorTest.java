@@ -0,0 +1,83 @@
+package org.stackwire.fca.generators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.stackwire.fca.test.ContextTestFactory.randomRelations;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.ConceptGenerator;
+import org.stackwire.fca.ConceptLattice;
+import org.stackwire.fca.ConceptType;
+import org.stackwire.fca.Context;
+
+public class NextNeighborsConceptGeneratorTest extends BaseConceptGeneratorTest {
+
+	/**
+	 * Returns true if b lies strictly above a, that is, has a larger extent
+	 */
+	static boolean isAbove(Concept a, Concept b) {
+		return !a.equals(b) && b.getExtent().getIndicies().containsAll(a.getExtent().getIndicies());
+	}
+
+	/**
+	 * Asserts that the lattice holds exactly the cover pairs of its concepts,
+	 * found by comparing all pairs
+	 */
+	static void assertCovers(ConceptLattice lattice) {
+		List<Concept> concepts = lattice.getConcepts();
+		for (int i = 0; i < concepts.size(); i++) {
+			Set<Integer> expected = new HashSet<>();
+			for (int j = 0; j < concepts.size(); j++) {
+				if (isAbove(concepts.get(i), concepts.get(j))) {
+					boolean cover = true;
+					for (int k = 0; k < concepts.size() && cover; k++) {
+						cover = !(isAbove(concepts.get(i), concepts.get(k))
+								&& isAbove(concepts.get(k), concepts.get(j)));
+					}
+					if (cover) {
+						expected.add(j);
+					}
+				}
+			}
+			Set<Integer> actual = new HashSet<>();
+			for (int j : lattice.getUpperCovers(i)) {
+				actual.add(j);
+				assertTrue(contains(lattice.getLowerCovers(j), i));
+			}
+			assertEquals(expected, actual);
+		}
+	}
+
+	private static boolean contains(int[] values, int value) {
+		for (int v : values) {
+			if (v == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	protected ConceptGenerator getGenerator() {
+		return new NextNeighborsConceptGenerator();
+	}
+
+	@Test
+	public void lattice() throws Exception {
+		Random random = new Random(3);
+		for (int n = 0; n < 10; n++) {
+			double[][] relations = randomRelations(random, 12, 10);
+			Context actual = assertSameFormalConcepts(new InCloseConceptGenerator(), getGenerator(), relations);
+
+			ConceptLattice lattice = actual.getConceptLattice().get();
+			assertEquals(actual.countOf(ConceptType.FORMAL_CONCEPT), lattice.size());
+			assertCovers(lattice);
+		}
+	}
+}
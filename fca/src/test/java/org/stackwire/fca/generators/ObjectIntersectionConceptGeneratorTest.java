@@ -15,10 +15,22 @@
  */
 package org.stackwire.fca.generators;
 
+import static org.stackwire.fca.test.ContextTestFactory.randomRelations;
+
+import java.util.Random;
+
+import org.junit.Test;
 import org.stackwire.fca.ConceptGenerator;
 
 public class ObjectIntersectionConceptGeneratorTest extends BaseConceptGeneratorTest {
 
+	@Test
+	public void matchesInClose() throws Exception {
+		Random random = new Random(7);
+		double[][] relations = randomRelations(random, 150, 12, 0.3);
+		assertSameFormalConcepts(new InCloseConceptGenerator(), getGenerator(), relations);
+	}
+
 	@Override
 	protected ConceptGenerator getGenerator() {
 		return new ObjectIntersectionConceptGenerator();
@@ -0,0 +1,32 @@
+package org.stackwire.fca.generators;
+
+import static org.stackwire.fca.test.ContextTestFactory.randomRelations;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+import org.stackwire.fca.ConceptGenerator;
+
+public class ParallelFastCloseByOneConceptGeneratorTest extends BaseConceptGeneratorTest {
+
+	@Override
+	protected ConceptGenerator getGenerator() {
+		return new ParallelFastCloseByOneConceptGenerator();
+	}
+
+	@Test
+	public void matchesFastCloseByOne() throws Exception {
+		Random random = new Random(19);
+		double[][] relations = randomRelations(random, 30, 20, 0.7);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int splitDepth = 0; splitDepth < 4; splitDepth++) {
+				assertSameFormalConcepts(new FastCloseByOneConceptGenerator(),
+						new ParallelFastCloseByOneConceptGenerator(pool, splitDepth), relations);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,32 @@
+package org.stackwire.fca.generators;
+
+import static org.stackwire.fca.test.ContextTestFactory.randomRelations;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+import org.stackwire.fca.ConceptGenerator;
+
+public class ParallelInCloseConceptGeneratorTest extends BaseConceptGeneratorTest {
+
+	@Override
+	protected ConceptGenerator getGenerator() {
+		return new ParallelInCloseConceptGenerator();
+	}
+
+	@Test
+	public void matchesInClose() throws Exception {
+		Random random = new Random(11);
+		double[][] relations = randomRelations(random, 60, 40, 0.25);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int splitDepth = 0; splitDepth < 4; splitDepth++) {
+				assertSameFormalConcepts(new InCloseConceptGenerator(),
+						new ParallelInCloseConceptGenerator(pool, splitDepth), relations);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
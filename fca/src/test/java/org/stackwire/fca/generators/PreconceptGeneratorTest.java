@@ -0,0 +1,96 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.generators;
+
+import static org.junit.Assert.assertEquals;
+import static org.stackwire.fca.test.ContextTestFactory.pairOf;
+import static org.stackwire.fca.test.ContextTestFactory.pairsOf;
+import static org.stackwire.fca.test.ContextTestFactory.randomRelations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.ConceptType;
+import org.stackwire.fca.Context;
+
+public class PreconceptGeneratorTest {
+
+	private static final double[][] FIXTURE = { { 1, 1, 0 }, { 1, 1, 0 }, { 0, 1, 1 } };
+
+	/**
+	 * Preconcepts of the fixture, worked by hand. ({0}, {0}) is one, since
+	 * object 0 has attribute 0, though {0}' = {0, 1} is not within {0}. ({0,
+	 * 2}, {1, 2}) is not, since object 0 lacks attribute 2, though {0, 2}' =
+	 * {1} and {1, 2}' = {2} lie within the other side.
+	 */
+	@Test
+	public void fixture() throws Exception {
+		Set<Concept> expected = new HashSet<>(Arrays.asList(
+				pairOf(ConceptType.PRECONCEPT, new int[0], new int[0]),
+				pairOf(ConceptType.PRECONCEPT, new int[0], new int[] { 0 }),
+				pairOf(ConceptType.PRECONCEPT, new int[0], new int[] { 1 }),
+				pairOf(ConceptType.PRECONCEPT, new int[0], new int[] { 2 }),
+				pairOf(ConceptType.PRECONCEPT, new int[0], new int[] { 0, 1 }),
+				pairOf(ConceptType.PRECONCEPT, new int[0], new int[] { 1, 2 }),
+				pairOf(ConceptType.PRECONCEPT, new int[] { 0 }, new int[0]),
+				pairOf(ConceptType.PRECONCEPT, new int[] { 0 }, new int[] { 0 }),
+				pairOf(ConceptType.PRECONCEPT, new int[] { 0 }, new int[] { 1 }),
+				pairOf(ConceptType.PRECONCEPT, new int[] { 1 }, new int[0]),
+				pairOf(ConceptType.PRECONCEPT, new int[] { 1 }, new int[] { 0 }),
+				pairOf(ConceptType.PRECONCEPT, new int[] { 1 }, new int[] { 1 }),
+				pairOf(ConceptType.PRECONCEPT, new int[] { 2 }, new int[0]),
+				pairOf(ConceptType.PRECONCEPT, new int[] { 2 }, new int[] { 1 }),
+				pairOf(ConceptType.PRECONCEPT, new int[] { 0, 1 }, new int[0]),
+				pairOf(ConceptType.PRECONCEPT, new int[] { 0, 1 }, new int[] { 1 }),
+				pairOf(ConceptType.PRECONCEPT, new int[] { 0, 2 }, new int[0]),
+				pairOf(ConceptType.PRECONCEPT, new int[] { 1, 2 }, new int[0])));
+		assertEquals(expected, pairsOf(FIXTURE, ConceptType.PRECONCEPT));
+		Context context = new PreconceptGenerator()
+				.generateConceptsFor(new Context.ContextBuilder(FIXTURE).build(), 0);
+		assertEquals(expected, new HashSet<>(context.viewOf(ConceptType.PRECONCEPT)));
+		assertEquals(expected.size(), context.countOf(ConceptType.PRECONCEPT));
+	}
+
+	@Test
+	public void generate() throws Exception {
+		Random random = new Random(41);
+		for (int n = 0; n < 5; n++) {
+			double[][] relations = randomRelations(random, 7, 5, 0.7);
+			Context context = new PreconceptGenerator()
+					.generateConceptsFor(new Context.ContextBuilder(relations).build(), 0);
+			Set<Concept> expected = pairsOf(relations, ConceptType.PRECONCEPT);
+			assertEquals(expected.size(), context.countOf(ConceptType.PRECONCEPT));
+			assertEquals(expected, new HashSet<>(context.viewOf(ConceptType.PRECONCEPT)));
+			assertEquals(0, context.countOf(ConceptType.FORMAL_CONCEPT));
+		}
+	}
+
+	@Test
+	public void sink() throws Exception {
+		List<Concept> accepted = new ArrayList<>();
+		new PreconceptGenerator().generateConceptsFor(new Context.ContextBuilder(FIXTURE).build(), 0, concept -> {
+			accepted.add(concept);
+			return accepted.size() < 3;
+		});
+		assertEquals(3, accepted.size());
+	}
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.generators;
+
+import static org.junit.Assert.assertEquals;
+import static org.stackwire.fca.test.ContextTestFactory.pairOf;
+import static org.stackwire.fca.test.ContextTestFactory.pairsOf;
+import static org.stackwire.fca.test.ContextTestFactory.randomRelations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.ConceptType;
+import org.stackwire.fca.Context;
+
+public class SemiconceptGeneratorTest {
+
+	private static final double[][] FIXTURE = { { 1, 1, 0 }, { 1, 1, 0 }, { 0, 1, 1 } };
+
+	/**
+	 * Semiconcepts of the fixture, worked by hand. Each is a proper subset of
+	 * a formal extent or intent with the same derivation, paired with that
+	 * derivation.
+	 */
+	@Test
+	public void fixture() throws Exception {
+		Set<Concept> expected = new HashSet<>(Arrays.asList(
+				pairOf(ConceptType.SEMICONCEPT, new int[0], new int[] { 0, 2 }),
+				pairOf(ConceptType.SEMICONCEPT, new int[] { 0 }, new int[] { 0, 1 }),
+				pairOf(ConceptType.SEMICONCEPT, new int[] { 1 }, new int[] { 0, 1 }),
+				pairOf(ConceptType.SEMICONCEPT, new int[] { 2 }, new int[] { 2 }),
+				pairOf(ConceptType.SEMICONCEPT, new int[] { 0, 1 }, new int[] { 0 }),
+				pairOf(ConceptType.SEMICONCEPT, new int[] { 0, 2 }, new int[] { 1 }),
+				pairOf(ConceptType.SEMICONCEPT, new int[] { 1, 2 }, new int[] { 1 }),
+				pairOf(ConceptType.SEMICONCEPT, new int[] { 0, 1, 2 }, new int[0])));
+		assertEquals(expected, pairsOf(FIXTURE, ConceptType.SEMICONCEPT));
+		Context context = new SemiconceptGenerator()
+				.generateConceptsFor(new Context.ContextBuilder(FIXTURE).build(), 0);
+		assertEquals(expected, new HashSet<>(context.viewOf(ConceptType.SEMICONCEPT)));
+		assertEquals(expected.size(), context.countOf(ConceptType.SEMICONCEPT));
+	}
+
+	@Test
+	public void generate() throws Exception {
+		Random random = new Random(37);
+		for (int n = 0; n < 5; n++) {
+			double[][] relations = randomRelations(random, 7, 5, 0.7);
+			Context context = new SemiconceptGenerator()
+					.generateConceptsFor(new Context.ContextBuilder(relations).build(), 0);
+			Set<Concept> expected = pairsOf(relations, ConceptType.SEMICONCEPT);
+			assertEquals(expected.size(), context.countOf(ConceptType.SEMICONCEPT));
+			assertEquals(expected, new HashSet<>(context.viewOf(ConceptType.SEMICONCEPT)));
+			assertEquals(0, context.countOf(ConceptType.FORMAL_CONCEPT));
+		}
+	}
+
+	@Test
+	public void sink() throws Exception {
+		List<Concept> accepted = new ArrayList<>();
+		new SemiconceptGenerator().generateConceptsFor(new Context.ContextBuilder(FIXTURE).build(), 0, concept -> {
+			accepted.add(concept);
+			return accepted.size() < 3;
+		});
+		assertEquals(3, accepted.size());
+	}
+}
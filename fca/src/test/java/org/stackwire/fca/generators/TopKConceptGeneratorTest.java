@@ -0,0 +1,98 @@
+package org.stackwire.fca.generators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.stackwire.fca.generators.BaseConceptGeneratorTest.contextOf;
+import static org.stackwire.fca.test.ContextTestFactory.randomRelations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.ConceptType;
+import org.stackwire.fca.Context;
+import org.stackwire.fca.relations.BinaryRelations;
+import org.stackwire.fca.tags.ScoreTag;
+import org.stackwire.fca.utils.BitIndexSet;
+
+public class TopKConceptGeneratorTest {
+
+	/**
+	 * Asserts that the generator finds the best scores of all concepts, in
+	 * order
+	 */
+	private static void assertTopK(ConceptScore score, int k, double[][] relations) {
+		Context full = contextOf(new InCloseConceptGenerator(), relations);
+		BinaryRelations binary = full.getBinaryRelations(0);
+		List<Double> expected = new ArrayList<>();
+		for (Concept concept : full.viewOf(ConceptType.FORMAL_CONCEPT)) {
+			expected.add(score.score(binary, concept.getExtent().getBitSet(), concept.getIntent().getBitSet()));
+		}
+		expected.sort(Collections.reverseOrder());
+
+		Context context = new TopKConceptGenerator(k, score)
+				.generateConceptsFor(new Context.ContextBuilder(relations).build(), 0);
+		List<Double> actual = new ArrayList<>();
+		context.viewOf(ConceptType.FORMAL_CONCEPT).forEach(concept -> {
+			ScoreTag tag = (ScoreTag) concept.getConceptTag();
+			assertEquals(score.score(binary, concept.getExtent().getBitSet(), concept.getIntent().getBitSet()),
+					tag.getScore(), 0);
+			actual.add(tag.getScore());
+		});
+		actual.sort(Collections.reverseOrder());
+		assertEquals(expected.subList(0, Math.min(k, expected.size())), actual);
+	}
+
+	@Test
+	public void topK() throws Exception {
+		Random random = new Random(31);
+		for (int n = 0; n < 5; n++) {
+			double[][] relations = randomRelations(random, 30, 12, 0.3);
+			for (ConceptScore score : new ConceptScore[] { ConceptScore.support(), ConceptScore.stability(),
+					ConceptScore.lift() }) {
+				for (int k : new int[] { 1, 5, 40, 10000 }) {
+					assertTopK(score, k, relations);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void prunes() throws Exception {
+		double[][] relations = randomRelations(new Random(37), 30, 12, 0.3);
+		int[] scored = new int[1];
+		ConceptScore counting = new ConceptScore() {
+
+			@Override
+			public double score(BinaryRelations relations, BitIndexSet extent, BitIndexSet intent) {
+				scored[0]++;
+				return ConceptScore.support().score(relations, extent, intent);
+			}
+
+			@Override
+			public double upperBound(BinaryRelations relations, BitIndexSet extent, BitIndexSet intent, int y) {
+				return ConceptScore.support().upperBound(relations, extent, intent, y);
+			}
+		};
+		new TopKConceptGenerator(10, counting).generateConceptsFor(new Context.ContextBuilder(relations).build(), 0);
+		int total = contextOf(new InCloseConceptGenerator(), relations)
+				.countOf(ConceptType.FORMAL_CONCEPT);
+		assertTrue(scored[0] < total / 2);
+	}
+
+	@Test
+	public void ranks() throws Exception {
+		List<Concept> concepts = new ArrayList<>();
+		new TopKConceptGenerator(5, ConceptScore.support()).generateConceptsFor(
+				new Context.ContextBuilder(randomRelations(new Random(41), 30, 12, 0.3)).build(), 0, concepts::add);
+		assertEquals(5, concepts.size());
+		for (int rank = 0; rank < concepts.size(); rank++) {
+			ScoreTag tag = (ScoreTag) concepts.get(rank).getConceptTag();
+			assertEquals(rank, tag.getRank());
+			assertTrue(rank == 0 || tag.getScore() <= ((ScoreTag) concepts.get(rank - 1).getConceptTag()).getScore());
+		}
+	}
+}
@@ -56,5 +56,7 @@ public class AttributesCommonToObjectsFunctionTest {
 		AttributesCommonToObjectsFunction function = new AttributesCommonToObjectsFunction(relations, 0);
 		Set<Integer> result = function.apply(Arrays.asList(1, 2));
 		assertThat(result, hasItems(1, 2));
+		result.retainAll(Arrays.asList(2));
+		assertEquals(1, result.size());
 	}
 }
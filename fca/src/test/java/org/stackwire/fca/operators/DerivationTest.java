@@ -0,0 +1,73 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.operators;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.stackwire.fca.functions.Derivation;
+import org.stackwire.fca.relations.PackedRelations;
+import org.stackwire.fca.utils.BitIndexSet;
+
+public class DerivationTest {
+
+	private static final double[][] relations = { { 0, 0, 0, 0 }, { 1, 1, 1, 1 }, { 0, 1, 1, 0 }, { 1, 1, 1, 1 },
+			{ 0, 0, 0, 0 }, { 0, 1, 0, 0 } };
+
+	private final Derivation derivation = new Derivation(PackedRelations.of(relations, 0));
+
+	@Test
+	public void attributesCommonTo() throws Exception {
+		BitIndexSet result = new BitIndexSet();
+		derivation.attributesCommonTo(BitIndexSet.of(Arrays.asList(1, 2)), result);
+		assertEquals(BitIndexSet.of(Arrays.asList(1, 2)), result);
+
+		derivation.attributesCommonTo(new BitIndexSet(), result);
+		assertEquals(BitIndexSet.range(0, 3), result);
+	}
+
+	@Test
+	public void objectsCommonTo() throws Exception {
+		BitIndexSet result = new BitIndexSet();
+		derivation.objectsCommonTo(BitIndexSet.of(Arrays.asList(1, 2)), result);
+		assertEquals(BitIndexSet.of(Arrays.asList(1, 2, 3)), result);
+
+		derivation.objectsCommonTo(new BitIndexSet(), result);
+		assertEquals(BitIndexSet.range(0, 5), result);
+	}
+
+	@Test
+	public void buffers() throws Exception {
+		int[] result = new int[6];
+		int count = derivation.objectsCommonTo(new int[] { 0, 3 }, 2, result);
+		assertArrayEquals(new int[] { 1, 3 }, Arrays.copyOf(result, count));
+
+		count = derivation.attributesCommonTo(new int[] { 2, 5 }, 2, result);
+		assertArrayEquals(new int[] { 1 }, Arrays.copyOf(result, count));
+	}
+
+	@Test
+	public void closure() throws Exception {
+		BitIndexSet objects = BitIndexSet.of(Arrays.asList(2));
+		BitIndexSet attributes = new BitIndexSet();
+		derivation.closeObjects(objects, attributes, objects);
+		assertEquals(BitIndexSet.of(Arrays.asList(1, 2)), attributes);
+		assertEquals(BitIndexSet.of(Arrays.asList(1, 2, 3)), objects);
+	}
+}
@@ -41,6 +41,8 @@ public class ObjectCommonToAttributesFunctionTest {
 		ObjectsCommonToAttributesFunction function = new ObjectsCommonToAttributesFunction(relations, 0);
 		Set<Integer> result = function.apply(Arrays.asList(0));
 		assertThat(result, hasItems(1, 3));
+		result.add(0);
+		assertThat(result, hasItems(0, 1, 3));
 	}
 
 }
@@ -0,0 +1,110 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.relations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.stackwire.fca.test.ContextTestFactory.randomRelations;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+import org.stackwire.fca.test.ContextTestFactory;
+import org.stackwire.fca.utils.BitIndexSet;
+
+public class PackedRelationsTest {
+
+	private static final double[][] relations = { { 0, 0, 0, 0 }, { 1, 1, 1, 1 }, { 0, 1, 1, 0 }, { 1, 1, 1, 1 },
+			{ 0, 0, 0, 0 }, { 0, 1, 0, 0 } };
+
+	@Test
+	public void of() throws Exception {
+		PackedRelations packed = PackedRelations.of(relations, 0);
+		assertEquals(6, packed.objectCount());
+		assertEquals(4, packed.attributeCount());
+		assertTrue(packed.hasRelation(2, 1));
+		assertFalse(packed.hasRelation(2, 3));
+		assertTrue(Arrays.deepEquals(relations, packed.toTable()));
+	}
+
+	@Test
+	public void threshold() throws Exception {
+		double[][] valued = { { .2, .8 }, { .5, .6 } };
+		PackedRelations packed = PackedRelations.of(valued, .5);
+		assertFalse(packed.hasRelation(0, 0));
+		assertTrue(packed.hasRelation(0, 1));
+		assertFalse(packed.hasRelation(1, 0));
+	}
+
+	@Test
+	public void wideRows() throws Exception {
+		PackedRelations packed = new PackedRelations(3, 130);
+		packed.addRelation(1, 64);
+		packed.addRelation(1, 129);
+		packed.addRelation(2, 63);
+		assertEquals(3, packed.rowWords());
+		assertTrue(packed.hasRelation(1, 64));
+		assertTrue(packed.hasRelation(1, 129));
+		assertFalse(packed.hasRelation(2, 64));
+		packed.removeRelation(1, 64);
+		assertFalse(packed.hasRelation(1, 64));
+	}
+
+	@Test
+	public void columnView() throws Exception {
+		PackedRelations packed = PackedRelations.of(relations, 0);
+		assertFalse(packed.hasColumnView());
+		long[] columns = packed.columnView();
+		assertEquals(Long.parseLong("101110", 2), columns[1 * packed.columnWords()]);
+
+		packed.addRelation(4, 3);
+		assertEquals(Long.parseLong("011010", 2), columns[3 * packed.columnWords()]);
+	}
+
+	@Test
+	public void resize() throws Exception {
+		Random random = new Random(59);
+		double[][] table = randomRelations(random, 9, 130);
+		BinaryRelations relations = PackedRelations.of(table, 0);
+		BinaryRelations before = relations;
+		double[] appended = new double[130];
+		appended[0] = appended[63] = appended[64] = appended[129] = 1;
+		relations = relations.withObject(BitIndexSet.of(Arrays.asList(0, 63, 64, 129)));
+		table = Arrays.copyOf(table, 10);
+		table[9] = appended;
+		assertTrue(Arrays.deepEquals(table, relations.toTable()));
+		assertEquals(9, before.objectCount());
+
+		for (int attribute : new int[] { 129, 64, 63, 0, 70 }) {
+			relations = relations.withoutAttribute(attribute);
+			table = ContextTestFactory.without(table, -1, attribute);
+			assertTrue(Arrays.deepEquals(table, relations.toTable()));
+		}
+		for (int object : new int[] { 9, 0, 4 }) {
+			relations = relations.withoutObject(object);
+			table = ContextTestFactory.without(table, object, -1);
+			assertTrue(Arrays.deepEquals(table, relations.toTable()));
+		}
+		relations.addRelation(0, 124);
+		assertTrue(relations.hasRelation(0, 124));
+		relations = relations.withObject(new BitIndexSet()).withObject(BitIndexSet.of(Arrays.asList(1)));
+		assertEquals(9, relations.objectCount());
+		assertTrue(relations.hasRelation(8, 1));
+		assertFalse(relations.hasRelation(7, 1));
+	}
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.relations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.stackwire.fca.test.ContextTestFactory.randomRelations;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+import org.stackwire.fca.test.ContextTestFactory;
+import org.stackwire.fca.utils.BitIndexSet;
+
+public class SparseRelationsTest {
+
+	private static final double[][] relations = { { 0, 0, 0, 0 }, { 1, 1, 1, 1 }, { 0, 1, 1, 0 }, { 1, 1, 1, 1 },
+			{ 0, 0, 0, 0 }, { 0, 1, 0, 0 } };
+
+	@Test
+	public void of() throws Exception {
+		SparseRelations sparse = SparseRelations.of(relations, 0);
+		assertEquals(11, sparse.relationCount());
+		assertEquals(4, sparse.columnSize(1));
+		assertTrue(sparse.hasRelation(5, 1));
+		assertFalse(sparse.hasRelation(5, 2));
+		assertTrue(Arrays.deepEquals(relations, sparse.toTable()));
+	}
+
+	@Test
+	public void addAndRemove() throws Exception {
+		SparseRelations sparse = new SparseRelations(2, 200);
+		sparse.addRelation(1, 150);
+		sparse.addRelation(1, 3);
+		sparse.addRelation(1, 150);
+		assertEquals(2, sparse.rowSize(1));
+		assertEquals(1, sparse.columnSize(150));
+		sparse.removeRelation(1, 150);
+		assertFalse(sparse.hasRelation(1, 150));
+		assertEquals(0, sparse.columnSize(150));
+	}
+
+	@Test
+	public void andRowAndColumn() throws Exception {
+		SparseRelations sparse = SparseRelations.of(relations, 0);
+
+		BitIndexSet attributes = BitIndexSet.range(0, 3);
+		sparse.andRow(2, attributes);
+		assertEquals(BitIndexSet.of(Arrays.asList(1, 2)), attributes);
+
+		BitIndexSet objects = BitIndexSet.range(0, 5);
+		sparse.andColumn(0, objects);
+		assertEquals(BitIndexSet.of(Arrays.asList(1, 3)), objects);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void readOnly() throws Exception {
+		SparseRelations.of(relations, 0).asReadOnly().addRelation(0, 0);
+	}
+
+	@Test
+	public void resize() throws Exception {
+		Random random = new Random(61);
+		double[][] table = randomRelations(random, 9, 130);
+		BinaryRelations relations = SparseRelations.of(table, 0);
+		BinaryRelations before = relations;
+		double[] appended = new double[130];
+		appended[0] = appended[63] = appended[64] = appended[129] = 1;
+		relations = relations.withObject(BitIndexSet.of(Arrays.asList(0, 63, 64, 129)));
+		table = Arrays.copyOf(table, 10);
+		table[9] = appended;
+		assertTrue(Arrays.deepEquals(table, relations.toTable()));
+		assertEquals(9, before.objectCount());
+
+		BinaryRelations other = before.withObject(BitIndexSet.of(Arrays.asList(1)));
+		BitIndexSet objects = BitIndexSet.range(0, 9);
+		relations.andColumn(129, objects);
+		assertTrue(objects.contains(9));
+		objects = BitIndexSet.range(0, 9);
+		other.andColumn(129, objects);
+		assertFalse(objects.contains(9));
+		assertEquals(((SparseRelations) before).columnSize(129), ((SparseRelations) other).columnSize(129));
+		assertEquals(((SparseRelations) before).columnSize(129) + 1, ((SparseRelations) relations).columnSize(129));
+		assertTrue(Arrays.deepEquals(table, relations.toTable()));
+		assertEquals(((SparseRelations) before).columnSize(129),
+				((SparseRelations) before.withoutAttribute(0)).columnSize(128));
+
+		for (int attribute : new int[] { 129, 64, 63, 0, 70 }) {
+			relations = relations.withoutAttribute(attribute);
+			table = ContextTestFactory.without(table, -1, attribute);
+			assertTrue(Arrays.deepEquals(table, relations.toTable()));
+		}
+		for (int object : new int[] { 9, 0, 4 }) {
+			relations = relations.withoutObject(object);
+			table = ContextTestFactory.without(table, object, -1);
+			assertTrue(Arrays.deepEquals(table, relations.toTable()));
+		}
+		relations.addRelation(0, 124);
+		assertTrue(relations.hasRelation(0, 124));
+		relations = relations.withObject(new BitIndexSet()).withObject(BitIndexSet.of(Arrays.asList(1)));
+		assertEquals(9, relations.objectCount());
+		assertTrue(relations.hasRelation(8, 1));
+		assertFalse(relations.hasRelation(7, 1));
+	}
+}
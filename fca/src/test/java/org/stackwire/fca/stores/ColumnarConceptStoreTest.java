@@ -0,0 +1,149 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.stores;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.junit.Test;
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.Concept.Extent;
+import org.stackwire.fca.Concept.Intent;
+import org.stackwire.fca.ConceptType;
+import org.stackwire.fca.tags.IndexTag;
+
+public class ColumnarConceptStoreTest {
+
+	@Test
+	public void addAndLookup() throws Exception {
+		ConceptStore store = new ColumnarConceptStore(4, 2);
+		Concept concept = new Concept.ConceptBuilder(new Extent(Arrays.asList(1, 3)),
+				new Intent(Arrays.asList(0, 1))).build();
+
+		assertTrue(store.add(concept));
+		assertFalse(store.add(new Concept.ConceptBuilder(new Extent(Arrays.asList(3, 1)),
+				new Intent(Arrays.asList(1, 0))).build()));
+		assertEquals(1, store.count(ConceptType.FORMAL_CONCEPT));
+
+		assertTrue(store.contains(new Extent(Arrays.asList(1, 3)), ConceptType.FORMAL_CONCEPT));
+		assertTrue(store.contains(new Intent(Arrays.asList(0, 1)), ConceptType.FORMAL_CONCEPT));
+		assertFalse(store.contains(new Extent(Arrays.asList(1, 3)), ConceptType.PRECONCEPT));
+		assertFalse(store.contains(new Intent(Arrays.asList(1, 3)), ConceptType.FORMAL_CONCEPT));
+		assertEquals(Arrays.asList(concept), store.get(new Extent(Arrays.asList(1, 3)), ConceptType.FORMAL_CONCEPT));
+	}
+
+	@Test
+	public void sharedExtent() throws Exception {
+		ConceptStore store = new ColumnarConceptStore(4, 2);
+		Extent extent = new Extent(Arrays.asList(0));
+		store.add(new Concept.ConceptBuilder(extent, new Intent(Arrays.asList(0))).conceptType(ConceptType.PRECONCEPT)
+				.build());
+		store.add(new Concept.ConceptBuilder(extent, new Intent(Arrays.asList(1))).conceptType(ConceptType.PRECONCEPT)
+				.build());
+		assertEquals(2, store.get(extent, ConceptType.PRECONCEPT).size());
+		assertEquals(2, store.get(ConceptType.PRECONCEPT).size());
+		assertEquals(0, store.count(ConceptType.FORMAL_CONCEPT));
+	}
+
+	@Test
+	public void growth() throws Exception {
+		ColumnarConceptStore store = new ColumnarConceptStore(100, 100);
+		for (int i = 0; i < 5000; i++) {
+			store.add(new Concept.ConceptBuilder(new Extent(Arrays.asList(i % 100)),
+					new Intent(Arrays.asList(i % 100, (i / 100) % 100))).conceptTag(new IndexTag(i)).build());
+		}
+		assertEquals(5000, store.size());
+		assertEquals(50, store.get(new Extent(Arrays.asList(7)), ConceptType.FORMAL_CONCEPT).size());
+		assertTrue(store.contains(new Intent(Arrays.asList(99, 49)), ConceptType.FORMAL_CONCEPT));
+		Concept last = store.get(new Intent(Arrays.asList(99, 49)), ConceptType.FORMAL_CONCEPT).iterator().next();
+		assertEquals(4999, ((IndexTag) last.getConceptTag()).getIndex());
+	}
+
+	@Test
+	public void outsideOfBounds() throws Exception {
+		ConceptStore store = new ColumnarConceptStore(4, 2);
+		assertFalse(store.contains(new Extent(Arrays.asList(4)), ConceptType.FORMAL_CONCEPT));
+	}
+
+	@Test
+	public void remove() throws Exception {
+		ColumnarConceptStore store = new ColumnarConceptStore(100, 100);
+		for (int i = 0; i < 1000; i++) {
+			store.add(new Concept.ConceptBuilder(new Extent(Arrays.asList(i % 100)),
+					new Intent(Arrays.asList(i / 100))).build());
+		}
+		for (int i = 0; i < 1000; i += 2) {
+			assertTrue(store.remove(new Concept.ConceptBuilder(new Extent(Arrays.asList(i % 100)),
+					new Intent(Arrays.asList(i / 100))).build()));
+		}
+		assertFalse(store.remove(
+				new Concept.ConceptBuilder(new Extent(Arrays.asList(0)), new Intent(Arrays.asList(0))).build()));
+		assertEquals(500, store.size());
+		assertEquals(500, store.get(ConceptType.FORMAL_CONCEPT).size());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i % 2 == 1, store.contains(new Intent(Arrays.asList(i / 100)), ConceptType.FORMAL_CONCEPT)
+					&& store.get(new Intent(Arrays.asList(i / 100)), ConceptType.FORMAL_CONCEPT)
+							.contains(new Concept.ConceptBuilder(new Extent(Arrays.asList(i % 100)),
+									new Intent(Arrays.asList(i / 100))).build()));
+		}
+		assertTrue(store.add(
+				new Concept.ConceptBuilder(new Extent(Arrays.asList(0)), new Intent(Arrays.asList(0))).build()));
+	}
+
+	@Test
+	public void reuseRows() throws Exception {
+		ColumnarConceptStore store = new ColumnarConceptStore(100, 100);
+		for (int i = 0; i < 1000; i++) {
+			store.add(new Concept.ConceptBuilder(new Extent(Arrays.asList(i % 100)),
+					new Intent(Arrays.asList(i / 100))).conceptTag(new IndexTag(i)).build());
+		}
+		for (int round = 1; round <= 5; round++) {
+			for (int i = 0; i < 1000; i++) {
+				assertTrue(store.remove(new Concept.ConceptBuilder(new Extent(Arrays.asList(i % 100)),
+						new Intent(Arrays.asList(i / 100 + 10 * (round - 1)))).build()));
+				assertTrue(store.add(new Concept.ConceptBuilder(new Extent(Arrays.asList(i % 100)),
+						new Intent(Arrays.asList(i / 100 + 10 * round))).conceptTag(new IndexTag(i)).build()));
+			}
+		}
+		assertEquals(1000, store.size());
+		assertEquals(1000, store.rowCount());
+		Collection<Concept> found = store.get(new Extent(Arrays.asList(5)), ConceptType.FORMAL_CONCEPT);
+		assertEquals(10, found.size());
+		for (Concept concept : found) {
+			int i = ((IndexTag) concept.getConceptTag()).getIndex();
+			assertEquals(5, i % 100);
+			assertEquals(new Intent(Arrays.asList(i / 100 + 50)), concept.getIntent());
+		}
+	}
+
+	@Test
+	public void widen() throws Exception {
+		ColumnarConceptStore store = new ColumnarConceptStore(4, 2);
+		Concept concept = new Concept.ConceptBuilder(new Extent(Arrays.asList(1)), new Intent(Arrays.asList(0)))
+				.build();
+		store.add(concept);
+		Concept wide = new Concept.ConceptBuilder(new Extent(Arrays.asList(0, 200)), new Intent(Arrays.asList(70)))
+				.build();
+		assertTrue(store.add(wide));
+		assertFalse(store.add(wide));
+		assertEquals(Arrays.asList(concept), store.get(new Extent(Arrays.asList(1)), ConceptType.FORMAL_CONCEPT));
+		assertEquals(Arrays.asList(wide), store.get(new Intent(Arrays.asList(70)), ConceptType.FORMAL_CONCEPT));
+	}
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.stores;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.Concept.Extent;
+import org.stackwire.fca.Concept.Intent;
+import org.stackwire.fca.ConceptType;
+
+public class IndexedConceptStoreTest {
+
+	@Test
+	public void addAndLookup() throws Exception {
+		ConceptStore store = new IndexedConceptStore();
+		Concept concept = new Concept.ConceptBuilder(new Extent(Arrays.asList(1, 3)),
+				new Intent(Arrays.asList(0, 1))).build();
+
+		assertTrue(store.add(concept));
+		assertFalse(store.add(new Concept.ConceptBuilder(new Extent(Arrays.asList(3, 1)),
+				new Intent(Arrays.asList(1, 0))).build()));
+		assertEquals(1, store.count(ConceptType.FORMAL_CONCEPT));
+
+		assertTrue(store.contains(new Extent(Arrays.asList(1, 3)), ConceptType.FORMAL_CONCEPT));
+		assertTrue(store.contains(new Intent(Arrays.asList(0, 1)), ConceptType.FORMAL_CONCEPT));
+		assertFalse(store.contains(new Extent(Arrays.asList(1, 3)), ConceptType.PRECONCEPT));
+		assertFalse(store.contains(new Intent(Arrays.asList(1, 3)), ConceptType.FORMAL_CONCEPT));
+		assertEquals(Arrays.asList(concept), store.get(new Extent(Arrays.asList(1, 3)), ConceptType.FORMAL_CONCEPT));
+	}
+
+	@Test
+	public void sharedExtent() throws Exception {
+		ConceptStore store = new IndexedConceptStore();
+		Extent extent = new Extent(Arrays.asList(0));
+		store.add(new Concept.ConceptBuilder(extent, new Intent(Arrays.asList(0))).conceptType(ConceptType.PRECONCEPT)
+				.build());
+		store.add(new Concept.ConceptBuilder(extent, new Intent(Arrays.asList(1))).conceptType(ConceptType.PRECONCEPT)
+				.build());
+		assertEquals(2, store.get(extent, ConceptType.PRECONCEPT).size());
+		assertEquals(2, store.get(ConceptType.PRECONCEPT).size());
+		assertEquals(0, store.count(ConceptType.FORMAL_CONCEPT));
+	}
+}
@@ -15,12 +15,173 @@
  */
 package org.stackwire.fca.test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
+import org.stackwire.fca.Concept;
+import org.stackwire.fca.ConceptType;
 import org.stackwire.fca.Context;
+import org.stackwire.fca.utils.BitIndexSet;
 
 public class ContextTestFactory {
 
+	/**
+	 * Returns the pair of the specified type, extent and intent
+	 * 
+	 * @param type
+	 *            concept type of the pair
+	 * @param extent
+	 *            object indicies
+	 * @param intent
+	 *            attribute indicies
+	 * @return concept of the pair
+	 */
+	public static Concept pairOf(ConceptType type, int[] extent, int[] intent) {
+		BitIndexSet objects = new BitIndexSet();
+		for (int i : extent) {
+			objects.add(i);
+		}
+		BitIndexSet attributes = new BitIndexSet();
+		for (int j : intent) {
+			attributes.add(j);
+		}
+		return new Concept.ConceptBuilder(new Concept.Extent(objects), new Concept.Intent(attributes))
+				.conceptType(type).build();
+	}
+
+	/**
+	 * Returns every pair of the specified type by testing all extents against
+	 * all intents of the cross table. Derivations are read from the table
+	 * directly, so the result does not depend on any relation storage or
+	 * classifier.
+	 * 
+	 * FORMAL_CONCEPT: A' = B and B' = A
+	 * 
+	 * SEMICONCEPT: A' = B or B' = A
+	 * 
+	 * PRECONCEPT: A is a subset of B'
+	 * 
+	 * @param relations
+	 *            cross table of relations, of at most 30 rows and columns
+	 * @param type
+	 *            concept type of the pairs
+	 * @return pairs of the type
+	 */
+	public static Set<Concept> pairsOf(double[][] relations, ConceptType type) {
+		int objectCount = relations.length;
+		int attributeCount = objectCount == 0 ? 0 : relations[0].length;
+		Set<Concept> pairs = new HashSet<>();
+		for (int a = 0; a < 1 << objectCount; a++) {
+			for (int b = 0; b < 1 << attributeCount; b++) {
+				int aOpr = (1 << attributeCount) - 1;
+				int bOpr = (1 << objectCount) - 1;
+				for (int i = 0; i < objectCount; i++) {
+					for (int j = 0; j < attributeCount; j++) {
+						if (relations[i][j] == 0) {
+							aOpr &= ((a >> i) & 1) == 0 ? ~0 : ~(1 << j);
+							bOpr &= ((b >> j) & 1) == 0 ? ~0 : ~(1 << i);
+						}
+					}
+				}
+				boolean x = aOpr == b;
+				boolean y = bOpr == a;
+				ConceptType pairType = ConceptType.UNKNOWN;
+				if (x && y) {
+					pairType = ConceptType.FORMAL_CONCEPT;
+				} else if (x || y) {
+					pairType = ConceptType.SEMICONCEPT;
+				} else if ((a & ~bOpr) == 0) {
+					pairType = ConceptType.PRECONCEPT;
+				}
+				if (pairType == type) {
+					pairs.add(pairOf(type, indiciesOf(a, objectCount), indiciesOf(b, attributeCount)));
+				}
+			}
+		}
+		return pairs;
+	}
+
+	private static int[] indiciesOf(int mask, int size) {
+		int[] indicies = new int[Integer.bitCount(mask)];
+		for (int k = 0, n = 0; k < size; k++) {
+			if ((mask & (1 << k)) != 0) {
+				indicies[n++] = k;
+			}
+		}
+		return indicies;
+	}
+
+	/**
+	 * Returns the specified relations without the specified row and column. A
+	 * negative index removes nothing.
+	 * 
+	 * @param relations
+	 *            cross table of relations
+	 * @param object
+	 *            row to remove, or negative
+	 * @param attribute
+	 *            column to remove, or negative
+	 * @return cross table without the row and column
+	 */
+	public static double[][] without(double[][] relations, int object, int attribute) {
+		List<double[]> rows = new ArrayList<>();
+		for (int i = 0; i < relations.length; i++) {
+			if (i != object) {
+				double[] row = new double[relations[i].length - (attribute < 0 ? 0 : 1)];
+				for (int j = 0, k = 0; j < relations[i].length; j++) {
+					if (j != attribute) {
+						row[k++] = relations[i][j];
+					}
+				}
+				rows.add(row);
+			}
+		}
+		return rows.toArray(new double[0][]);
+	}
+
+	/**
+	 * Returns a cross table with each relation drawn with even odds
+	 * 
+	 * @param random
+	 *            source of the relations
+	 * @param objectCount
+	 *            count of rows
+	 * @param attributeCount
+	 *            count of columns
+	 * @return cross table of relations
+	 */
+	public static double[][] randomRelations(Random random, int objectCount, int attributeCount) {
+		return randomRelations(random, objectCount, attributeCount, 0.5);
+	}
+
+	/**
+	 * Returns a cross table with each relation drawn with the specified
+	 * probability
+	 * 
+	 * @param random
+	 *            source of the relations
+	 * @param objectCount
+	 *            count of rows
+	 * @param attributeCount
+	 *            count of columns
+	 * @param density
+	 *            probability that an object has an attribute
+	 * @return cross table of relations
+	 */
+	public static double[][] randomRelations(Random random, int objectCount, int attributeCount, double density) {
+		double[][] relations = new double[objectCount][attributeCount];
+		for (double[] row : relations) {
+			for (int j = 0; j < row.length; j++) {
+				row[j] = random.nextDouble() < density ? 1 : 0;
+			}
+		}
+		return relations;
+	}
+
 	/**
 	 * Formal Context from Concept Data Analysis (Table 1.1)
 	 * 
@@ -1,9 +1,14 @@
 package org.stackwire.fca.test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
+
 import org.junit.Test;
+import org.stackwire.fca.Concept.Extent;
+import org.stackwire.fca.Concept.Intent;
 import org.stackwire.fca.utils.SemanticIndexSet;
 
 public class SemanticIndexSetTest {
@@ -22,4 +27,13 @@ public class SemanticIndexSetTest {
 		assertEquals(1, set.getCount());
 		assertTrue(set.hasIndex(0));
 	}
+
+	@Test
+	public void equality() {
+		Extent extent = new Extent(Arrays.asList(3, 1, 2));
+		assertEquals(new Extent(Arrays.asList(1, 2, 3)), extent);
+		assertEquals(new Extent(Arrays.asList(1, 2, 3)).hashCode(), extent.hashCode());
+		assertNotEquals(new Intent(Arrays.asList(1, 2, 3)), extent);
+		assertEquals(Arrays.asList(1, 2, 3), Arrays.asList(extent.getIndicies().toArray()));
+	}
 }
@@ -0,0 +1,85 @@
+/**
+ * Copyright 2016 Shane Isbell
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.stackwire.fca.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class BitIndexSetTest {
+
+	@Test
+	public void addAndRemove() throws Exception {
+		BitIndexSet set = new BitIndexSet(10);
+		assertTrue(set.add(3));
+		assertFalse(set.add(3));
+		assertTrue(set.add(200));
+		assertTrue(set.contains(200));
+		assertEquals(2, set.cardinality());
+		assertTrue(set.remove(3));
+		assertFalse(set.remove(3));
+		assertArrayEquals(new int[] { 200 }, set.toArray());
+	}
+
+	@Test
+	public void equalsIgnoresCapacity() throws Exception {
+		BitIndexSet small = BitIndexSet.of(Arrays.asList(1, 5));
+		BitIndexSet large = new BitIndexSet(500);
+		large.add(5);
+		large.add(1);
+		assertEquals(small, large);
+		assertEquals(small.hashCode(), large.hashCode());
+		assertEquals(new BitIndexSet(), new BitIndexSet(128));
+	}
+
+	@Test
+	public void range() throws Exception {
+		BitIndexSet set = BitIndexSet.range(60, 130);
+		assertEquals(71, set.cardinality());
+		assertFalse(set.contains(59));
+		assertTrue(set.contains(60));
+		assertTrue(set.contains(130));
+		assertFalse(set.contains(131));
+		assertEquals(64, new BitIndexSet().addRange(0, 64).cardinality());
+	}
+
+	@Test
+	public void setOperations() throws Exception {
+		BitIndexSet a = BitIndexSet.of(Arrays.asList(1, 2, 3, 70));
+		BitIndexSet b = BitIndexSet.of(Arrays.asList(2, 3, 4));
+
+		assertEquals(BitIndexSet.of(Arrays.asList(2, 3)), new BitIndexSet(a).and(b));
+		assertEquals(BitIndexSet.of(Arrays.asList(1, 2, 3, 4, 70)), new BitIndexSet(a).or(b));
+		assertEquals(BitIndexSet.of(Arrays.asList(1, 70)), new BitIndexSet(a).andNot(b));
+		assertTrue(new BitIndexSet(a).and(b).isSubsetOf(b));
+		assertFalse(a.isSubsetOf(b));
+		assertTrue(a.intersects(b));
+	}
+
+	@Test
+	public void orderedIteration() throws Exception {
+		BitIndexSet set = BitIndexSet.of(Arrays.asList(130, 2, 64, 0));
+		assertArrayEquals(new int[] { 0, 2, 64, 130 }, set.toArray());
+		assertEquals(Arrays.asList(0, 2, 64, 130), Arrays.asList(set.asSet().toArray()));
+		assertEquals(64, set.nextSetBit(3));
+		assertEquals(-1, set.nextSetBit(131));
+	}
+}